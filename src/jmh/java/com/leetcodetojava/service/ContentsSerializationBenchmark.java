@@ -0,0 +1,82 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Building the Contents API PUT body: the Base64 string plus Jackson DTO route
+// (CreateFileRequest / UpdateFileRequest) against the streaming ContentsRequestBody used for
+// uploads, and the git blob hash computed for every file before deciding to upload
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentsSerializationBenchmark {
+    private static final String MESSAGE = "feat: add java solution for two-sum";
+    private static final String SHA = "3b18e512dba79e4c8300dd08aeb37f8e728b8dad";
+
+    @Param({"1024", "8192", "65536"})
+    public int codeBytes;
+
+    private ObjectMapper objectMapper;
+    private byte[] codeBytesUtf8;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        codeBytesUtf8 = LeetCodeMonitorService.cleanExtractedCode(SampleSolutions.code(codeBytes))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] createFileRequestDto() throws IOException {
+        String content = Base64.getEncoder().encodeToString(codeBytesUtf8);
+        return objectMapper.writeValueAsBytes(new GitHubService.CreateFileRequest(MESSAGE, content));
+    }
+
+    @Benchmark
+    public byte[] updateFileRequestDto() throws IOException {
+        String content = Base64.getEncoder().encodeToString(codeBytesUtf8);
+        return objectMapper.writeValueAsBytes(new GitHubService.UpdateFileRequest(MESSAGE, content, SHA));
+    }
+
+    @Benchmark
+    public long contentsRequestBodyCreate() throws IOException {
+        return writeStreaming(null);
+    }
+
+    @Benchmark
+    public long contentsRequestBodyUpdate() throws IOException {
+        return writeStreaming(SHA);
+    }
+
+    @Benchmark
+    public String gitBlobSha() {
+        return GitBlobHasher.blobSha(codeBytesUtf8);
+    }
+
+    private long writeStreaming(String sha) throws IOException {
+        Buffer sink = new Buffer();
+        new ContentsRequestBody(objectMapper.getFactory(), MESSAGE, codeBytesUtf8, sha).writeTo(sink);
+        long size = sink.size();
+        sink.clear();
+        return size;
+    }
+}
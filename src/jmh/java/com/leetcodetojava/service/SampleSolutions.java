@@ -0,0 +1,37 @@
+package com.leetcodetojava.service;
+
+// Solution text of a given size as it comes out of the editor: indented Java with CRLF line
+// endings and surrounding blank lines, so normalisation has real work to do
+final class SampleSolutions {
+    private static final String[] LINES = {
+            "class Solution {",
+            "    public int[] twoSum(int[] nums, int target) {",
+            "        Map<Integer, Integer> seen = new HashMap<>();",
+            "        for (int i = 0; i < nums.length; i++) {",
+            "            int complement = target - nums[i];",
+            "            if (seen.containsKey(complement)) {",
+            "                return new int[] {seen.get(complement), i};",
+            "            }",
+            "            seen.put(nums[i], i); // remember where each value was",
+            "        }",
+            "        return new int[0];",
+            "    }",
+            "}",
+            ""
+    };
+
+    static final String[] LANGUAGES = {"Java", "Python3", "C++", "JavaScript", "TypeScript", "Go", "Rust", "C#", "Kotlin", "MySQL"};
+
+    private SampleSolutions() {
+    }
+
+    static String code(int bytes) {
+        StringBuilder code = new StringBuilder(bytes + 64);
+        code.append("\r\n\r\n");
+        for (int i = 0; code.length() < bytes; i++) {
+            code.append(LINES[i % LINES.length]).append("\r\n");
+        }
+        code.append("   \r\n");
+        return code.toString();
+    }
+}
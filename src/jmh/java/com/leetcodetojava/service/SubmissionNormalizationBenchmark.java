@@ -0,0 +1,71 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.model.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-submission work between reading the editor and choosing where the file goes:
+// code clean-up, language mapping, file extension and repository path
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubmissionNormalizationBenchmark {
+
+    // Typical accepted solutions are 1-4 KB; 64 KB covers the largest seen in bulk imports
+    @Param({"1024", "8192", "65536"})
+    public int codeBytes;
+
+    private String rawCode;
+    private Submission[] submissions;
+
+    @Setup
+    public void setUp() {
+        rawCode = SampleSolutions.code(codeBytes);
+        submissions = new Submission[SampleSolutions.LANGUAGES.length];
+        for (int i = 0; i < submissions.length; i++) {
+            String language = LeetCodeMonitorService.mapLanguageName(SampleSolutions.LANGUAGES[i]);
+            submissions[i] = new Submission("two-sum", language, rawCode);
+        }
+    }
+
+    @Benchmark
+    public String cleanExtractedCode() {
+        return LeetCodeMonitorService.cleanExtractedCode(rawCode);
+    }
+
+    @Benchmark
+    public void mapLanguageName(Blackhole blackhole) {
+        for (String language : SampleSolutions.LANGUAGES) {
+            blackhole.consume(LeetCodeMonitorService.mapLanguageName(language));
+        }
+    }
+
+    @Benchmark
+    public void getLanguageExtension(Blackhole blackhole) {
+        for (String language : SampleSolutions.LANGUAGES) {
+            blackhole.consume(GitHubService.getLanguageExtension(language));
+        }
+    }
+
+    @Benchmark
+    public void buildFilePath(Blackhole blackhole) {
+        for (Submission submission : submissions) {
+            blackhole.consume(GitHubService.buildFilePath(submission));
+        }
+    }
+}
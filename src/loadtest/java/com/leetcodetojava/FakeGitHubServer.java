@@ -0,0 +1,533 @@
+package com.leetcodetojava;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodetojava.service.GitBlobHasher;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory stand-in for the parts of the GitHub REST API the uploader uses: /user, the Contents
+// API and the Git Data API (refs, commits, trees) of one repository and branch. It sends the
+// rate-limit headers, answers 403 once the window's budget is spent, and can inject secondary
+// rate limits, random 502s and an outage through its FaultInjector. Reads carry GitHub's caching
+// headers (Cache-Control: private, max-age=60 and an ETag), so a client that trusts its HTTP
+// cache for the branch ref or tree builds on stale state here just as it would against GitHub.
+final class FakeGitHubServer {
+    interface CommitListener {
+        // A file's content changed on the branch; nanoTime is System.nanoTime() at that moment
+        void committed(String path, long nanoTime);
+    }
+
+    private static final String CACHE_CONTROL = "private, max-age=60, s-maxage=60";
+
+    private final FaultInjector faults;
+    private final String owner;
+    private final String repo;
+    private final String branch;
+    private final int rateLimit;
+    private final long rateWindowMillis;
+    private final double secondaryLimitRate;
+    private final CommitListener listener;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+    private final LongAdder secondaryLimited = new LongAdder();
+    private final LongAdder primaryLimited = new LongAdder();
+
+    // Repository state, guarded by this
+    private final Map<String, byte[]> blobs = new HashMap<>();
+    private final Map<String, Map<String, String>> trees = new HashMap<>(); // tree sha -> path -> blob sha
+    private final Map<String, Commit> commits = new HashMap<>();
+    private String headSha;
+    private long commitCounter;
+
+    // Rate-limit window, guarded by this
+    private long windowResetAtMillis;
+    private int windowUsed;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    FakeGitHubServer(FaultInjector faults, String owner, String repo, String branch, int rateLimit, int rateWindowSeconds,
+                     double secondaryLimitRate, CommitListener listener) {
+        this.faults = faults;
+        this.owner = owner;
+        this.repo = repo;
+        this.branch = branch;
+        this.rateLimit = rateLimit;
+        this.rateWindowMillis = rateWindowSeconds * 1000L;
+        this.secondaryLimitRate = secondaryLimitRate;
+        this.listener = listener;
+
+        String emptyTree = newSha("tree");
+        trees.put(emptyTree, new TreeMap<>());
+        headSha = newSha("commit");
+        commits.put(headSha, new Commit(emptyTree, null));
+    }
+
+    String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Enough threads that injected latency overlaps the way it would over the network
+        executor = Executors.newFixedThreadPool(32, runnable -> {
+            Thread thread = new Thread(runnable, "fake-github");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        faults.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    Map<Integer, Long> getResponseCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        responses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    long getPrimaryLimited() {
+        return primaryLimited.sum();
+    }
+
+    long getSecondaryLimited() {
+        return secondaryLimited.sum();
+    }
+
+    synchronized int getFileCount() {
+        return trees.get(commits.get(headSha).treeSha).size();
+    }
+
+    // Paths in the tree of the branch head when called
+    synchronized Set<String> getHeadPaths() {
+        return new HashSet<>(headFiles().keySet());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                faults.delay();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            if (faults.inOutage()) {
+                send(exchange, 503, error("Service unavailable"));
+                return;
+            }
+            if (faults.shouldFail()) {
+                send(exchange, 502, error("Bad gateway"));
+                return;
+            }
+            if (!"GET".equals(method) && secondaryLimitRate > 0 && ThreadLocalRandom.current().nextDouble() < secondaryLimitRate) {
+                secondaryLimited.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 403, error("You have exceeded a secondary rate limit"));
+                return;
+            }
+            if (!takeRateLimitBudget(exchange)) {
+                primaryLimited.increment();
+                send(exchange, 403, error("API rate limit exceeded"));
+                return;
+            }
+
+            route(exchange, method);
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private synchronized boolean takeRateLimitBudget(HttpExchange exchange) {
+        long now = System.currentTimeMillis();
+        if (now >= windowResetAtMillis) {
+            windowResetAtMillis = now + rateWindowMillis;
+            windowUsed = 0;
+        }
+        boolean allowed = windowUsed < rateLimit;
+        if (allowed) {
+            windowUsed++;
+        }
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(rateLimit - windowUsed));
+        exchange.getResponseHeaders().set("X-RateLimit-Used", Integer.toString(windowUsed));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", Long.toString((windowResetAtMillis + 999) / 1000));
+        return allowed;
+    }
+
+    private void route(HttpExchange exchange, String method) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        if ("/user".equals(path) && "GET".equals(method)) {
+            ObjectNode user = objectMapper.createObjectNode();
+            user.put("login", owner);
+            sendCacheable(exchange, user);
+            return;
+        }
+
+        String repoPrefix = "/repos/" + owner + "/" + repo + "/";
+        if (!path.startsWith(repoPrefix)) {
+            send(exchange, 404, error("Not Found"));
+            return;
+        }
+        String resource = path.substring(repoPrefix.length());
+
+        if (resource.startsWith("contents/")) {
+            String filePath = resource.substring("contents/".length());
+            if ("GET".equals(method)) {
+                getContents(exchange, filePath);
+            } else if ("PUT".equals(method)) {
+                putContents(exchange, filePath);
+            } else {
+                send(exchange, 405, error("Method not allowed"));
+            }
+        } else if (resource.equals("git/ref/heads/" + branch) && "GET".equals(method)) {
+            getRef(exchange);
+        } else if (resource.equals("git/refs/heads/" + branch) && "PATCH".equals(method)) {
+            updateRef(exchange);
+        } else if (resource.startsWith("git/commits/") && "GET".equals(method)) {
+            getCommit(exchange, resource.substring("git/commits/".length()));
+        } else if (resource.equals("git/commits") && "POST".equals(method)) {
+            createCommit(exchange);
+        } else if (resource.equals("git/trees") && "POST".equals(method)) {
+            createTree(exchange);
+        } else if (resource.startsWith("git/trees/") && "GET".equals(method)) {
+            getTree(exchange, resource.substring("git/trees/".length()));
+        } else {
+            send(exchange, 404, error("Not Found"));
+        }
+    }
+
+    private void getContents(HttpExchange exchange, String filePath) throws IOException {
+        String sha;
+        byte[] content;
+        synchronized (this) {
+            sha = headFiles().get(filePath);
+            content = sha != null ? blobs.get(sha) : null;
+        }
+        if (sha == null) {
+            send(exchange, 404, error("Not Found"));
+            return;
+        }
+
+        String etag = "\"" + sha + "\"";
+        exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            send(exchange, 304, null);
+            return;
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && accept.contains("raw")) {
+            sendBytes(exchange, 200, content);
+            return;
+        }
+
+        ObjectNode file = objectMapper.createObjectNode();
+        file.put("type", "file");
+        file.put("path", filePath);
+        file.put("sha", sha);
+        file.put("size", content.length);
+        send(exchange, 200, file);
+    }
+
+    private void putContents(HttpExchange exchange, String filePath) throws IOException {
+        JsonNode body = readBody(exchange);
+        byte[] content = Base64.getMimeDecoder().decode(body.path("content").asText());
+        String expectedSha = body.path("sha").asText(null);
+
+        String blobSha = GitBlobHasher.blobSha(content);
+        String commitSha;
+        boolean created;
+        long committedAt;
+        synchronized (this) {
+            Map<String, String> files = headFiles();
+            String existingSha = files.get(filePath);
+            if (existingSha != null && expectedSha == null) {
+                send(exchange, 422, error("Invalid request. \"sha\" wasn't supplied."));
+                return;
+            }
+            if (existingSha != null && !existingSha.equals(expectedSha)) {
+                send(exchange, 409, error(filePath + " does not match " + expectedSha));
+                return;
+            }
+
+            blobs.put(blobSha, content);
+            Map<String, String> newFiles = new TreeMap<>(files);
+            newFiles.put(filePath, blobSha);
+            String treeSha = newSha("tree");
+            trees.put(treeSha, newFiles);
+            commitSha = newSha("commit");
+            commits.put(commitSha, new Commit(treeSha, headSha));
+            headSha = commitSha;
+            created = existingSha == null;
+            committedAt = System.nanoTime();
+        }
+        listener.committed(filePath, committedAt);
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode contentNode = response.putObject("content");
+        contentNode.put("path", filePath);
+        contentNode.put("sha", blobSha);
+        contentNode.put("html_url", "https://github.com/" + owner + "/" + repo + "/blob/" + branch + "/" + filePath);
+        response.putObject("commit").put("sha", commitSha);
+        send(exchange, created ? 201 : 200, response);
+    }
+
+    private void getRef(HttpExchange exchange) throws IOException {
+        ObjectNode ref = objectMapper.createObjectNode();
+        ref.put("ref", "refs/heads/" + branch);
+        ObjectNode object = ref.putObject("object");
+        synchronized (this) {
+            object.put("sha", headSha);
+        }
+        object.put("type", "commit");
+        sendCacheable(exchange, ref);
+    }
+
+    private void getCommit(HttpExchange exchange, String sha) throws IOException {
+        Commit commit;
+        synchronized (this) {
+            commit = commits.get(sha);
+        }
+        if (commit == null) {
+            send(exchange, 404, error("Not Found"));
+            return;
+        }
+        sendCacheable(exchange, commitNode(sha, commit));
+    }
+
+    private void createCommit(HttpExchange exchange) throws IOException {
+        JsonNode body = readBody(exchange);
+        String treeSha = body.path("tree").asText();
+        String parent = body.path("parents").path(0).asText(null);
+
+        String sha;
+        Commit commit;
+        synchronized (this) {
+            if (!trees.containsKey(treeSha) || (parent != null && !commits.containsKey(parent))) {
+                send(exchange, 422, error("Tree or parent does not exist"));
+                return;
+            }
+            sha = newSha("commit");
+            commit = new Commit(treeSha, parent);
+            commits.put(sha, commit);
+        }
+        send(exchange, 201, commitNode(sha, commit));
+    }
+
+    // Like GitHub, a tree is built on top of base_tree and the response describes only its root:
+    // top-level files and one "tree" entry per directory, never the nested paths just written
+    private void createTree(HttpExchange exchange) throws IOException {
+        JsonNode body = readBody(exchange);
+        String baseTree = body.path("base_tree").asText(null);
+
+        Map<String, String> written = new TreeMap<>();
+        Map<String, byte[]> newBlobs = new HashMap<>();
+        for (JsonNode entry : body.path("tree")) {
+            byte[] content = entry.path("content").asText().getBytes(StandardCharsets.UTF_8);
+            String blobSha = GitBlobHasher.blobSha(content);
+            newBlobs.put(blobSha, content);
+            written.put(entry.path("path").asText(), blobSha);
+        }
+
+        String treeSha;
+        Map<String, String> files;
+        synchronized (this) {
+            Map<String, String> base = baseTree != null ? trees.get(baseTree) : new TreeMap<>();
+            if (base == null) {
+                send(exchange, 422, error("base_tree " + baseTree + " does not exist"));
+                return;
+            }
+            blobs.putAll(newBlobs);
+            files = new TreeMap<>(base);
+            files.putAll(written);
+            treeSha = newSha("tree");
+            trees.put(treeSha, files);
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("sha", treeSha);
+        ArrayNode entries = response.putArray("tree");
+        Map<String, StringBuilder> directories = new TreeMap<>();
+        for (Entry<String, String> file : files.entrySet()) {
+            int slash = file.getKey().indexOf('/');
+            if (slash < 0) {
+                entries.addObject()
+                        .put("path", file.getKey())
+                        .put("mode", "100644")
+                        .put("type", "blob")
+                        .put("sha", file.getValue());
+            } else {
+                directories.computeIfAbsent(file.getKey().substring(0, slash), key -> new StringBuilder())
+                        .append(file.getKey()).append(' ').append(file.getValue()).append('\n');
+            }
+        }
+        directories.forEach((name, listing) -> entries.addObject()
+                .put("path", name)
+                .put("mode", "040000")
+                .put("type", "tree")
+                .put("sha", GitBlobHasher.blobSha(listing.toString())));
+        response.put("truncated", false);
+        send(exchange, 201, response);
+    }
+
+    private void getTree(HttpExchange exchange, String treeish) throws IOException {
+        Map<String, String> files;
+        String treeSha;
+        synchronized (this) {
+            treeSha = branch.equals(treeish) ? commits.get(headSha).treeSha : treeish;
+            files = trees.get(treeSha);
+            files = files != null ? new TreeMap<>(files) : null;
+        }
+        if (files == null) {
+            send(exchange, 404, error("Not Found"));
+            return;
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("sha", treeSha);
+        ArrayNode entries = response.putArray("tree");
+        for (Entry<String, String> file : files.entrySet()) {
+            entries.addObject()
+                    .put("path", file.getKey())
+                    .put("mode", "100644")
+                    .put("type", "blob")
+                    .put("sha", file.getValue());
+        }
+        response.put("truncated", false);
+        sendCacheable(exchange, response);
+    }
+
+    private void updateRef(HttpExchange exchange) throws IOException {
+        JsonNode body = readBody(exchange);
+        String sha = body.path("sha").asText();
+        boolean force = body.path("force").asBoolean(false);
+
+        Map<String, String> changed = new HashMap<>();
+        long committedAt;
+        synchronized (this) {
+            Commit commit = commits.get(sha);
+            if (commit == null) {
+                send(exchange, 422, error("Object does not exist"));
+                return;
+            }
+            if (!force && !headSha.equals(commit.parent)) {
+                send(exchange, 422, error("Update is not a fast forward"));
+                return;
+            }
+
+            Map<String, String> before = headFiles();
+            for (Entry<String, String> file : trees.get(commit.treeSha).entrySet()) {
+                if (!file.getValue().equals(before.get(file.getKey()))) {
+                    changed.put(file.getKey(), file.getValue());
+                }
+            }
+            headSha = sha;
+            committedAt = System.nanoTime();
+        }
+        for (String path : changed.keySet()) {
+            listener.committed(path, committedAt);
+        }
+
+        ObjectNode ref = objectMapper.createObjectNode();
+        ref.put("ref", "refs/heads/" + branch);
+        ref.putObject("object").put("sha", sha).put("type", "commit");
+        send(exchange, 200, ref);
+    }
+
+    private Map<String, String> headFiles() {
+        return trees.get(commits.get(headSha).treeSha);
+    }
+
+    private ObjectNode commitNode(String sha, Commit commit) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("sha", sha);
+        node.putObject("tree").put("sha", commit.treeSha);
+        ArrayNode parents = node.putArray("parents");
+        if (commit.parent != null) {
+            parents.addObject().put("sha", commit.parent);
+        }
+        return node;
+    }
+
+    private String newSha(String kind) {
+        return GitBlobHasher.blobSha(kind + " " + (++commitCounter) + " " + System.nanoTime());
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        return objectMapper.readTree(exchange.getRequestBody());
+    }
+
+    private ObjectNode error(String message) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("message", message);
+        return error;
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        sendBytes(exchange, status, body != null ? objectMapper.writeValueAsBytes(body) : null);
+    }
+
+    // A 200 with GitHub's caching headers, or a 304 when the client already holds this version
+    private void sendCacheable(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        String etag = "W/\"" + GitBlobHasher.blobSha(bytes) + "\"";
+        exchange.getResponseHeaders().set("Cache-Control", CACHE_CONTROL);
+        exchange.getResponseHeaders().set("Vary", "Accept, Authorization");
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            sendBytes(exchange, 304, null);
+            return;
+        }
+        sendBytes(exchange, 200, bytes);
+    }
+
+    private void sendBytes(HttpExchange exchange, int status, byte[] body) throws IOException {
+        responses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (body == null || status == 304) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static final class Commit {
+        private final String treeSha;
+        private final String parent;
+
+        private Commit(String treeSha, String parent) {
+            this.treeSha = treeSha;
+            this.parent = parent;
+        }
+    }
+}
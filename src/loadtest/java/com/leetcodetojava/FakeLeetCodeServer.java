@@ -0,0 +1,267 @@
+package com.leetcodetojava;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Stand-in for the LeetCode endpoints the backfill reads: the paged submission history at
+// /api/submissions/ and the submissionDetails, userStatus and recentAcSubmissionList GraphQL
+// queries. The history holds one accepted solution per synthetic problem, newest first, mixed
+// with older wrong answers and older accepted duplicates that the backfill has to skip.
+final class FakeLeetCodeServer {
+    interface FetchListener {
+        // The code of a problem's solution was handed out; nanoTime is System.nanoTime() at that moment
+        void fetched(String titleSlug, long nanoTime);
+    }
+
+    // The "lang" values of the history API, which the uploader maps to its own names
+    static final String[] LANGUAGES = {"java", "python3", "cpp", "javascript", "typescript", "golang", "rust", "csharp", "kotlin"};
+    private static final long FIRST_ID = 1_000_000L;
+    private static final String USERNAME = "loadtest";
+
+    private final FaultInjector faults;
+    private final FetchListener listener;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<HistoryEntry> history;
+    private final Map<Long, HistoryEntry> byId;
+    private final LongAdder requests = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    FakeLeetCodeServer(FaultInjector faults, int problems, FetchListener listener) {
+        this.faults = faults;
+        this.listener = listener;
+        this.history = new ArrayList<>();
+        this.byId = new HashMap<>();
+
+        // Newest first: each problem's accepted solution, then for some an older wrong answer
+        // and an older accepted version in the same language
+        long nextId = FIRST_ID + problems * 3L;
+        long timestamp = 1_700_000_000L + problems * 3L;
+        for (int problem = 0; problem < problems; problem++) {
+            add(new HistoryEntry(nextId--, problem, timestamp--, true));
+            if (problem % 5 == 0) {
+                add(new HistoryEntry(nextId--, problem, timestamp--, false));
+            }
+            if (problem % 10 == 0) {
+                add(new HistoryEntry(nextId--, problem, timestamp--, true));
+            }
+        }
+    }
+
+    static String titleSlug(int problem) {
+        return String.format("problem-%05d", problem);
+    }
+
+    // A Java-looking solution of 0.5 to 6 KB that differs per problem and per version
+    static String solutionCode(int problem, long version) {
+        int lines = 12 + (int) ((problem * 2654435761L + version) % 150 + 150) % 150;
+        StringBuilder code = new StringBuilder(lines * 40);
+        code.append("class Solution {\r\n");
+        code.append("    // problem ").append(problem).append(", version ").append(version).append("\r\n");
+        code.append("    public int solve(int[] nums) {\r\n");
+        code.append("        int result = 0;\r\n");
+        for (int i = 0; i < lines; i++) {
+            code.append("        result += nums[").append(i % 7).append("] * ").append((problem + i) % 97).append(";\r\n");
+        }
+        code.append("        return result;\r\n    }\r\n}\r\n");
+        return code.toString();
+    }
+
+    String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(32, runnable -> {
+            Thread thread = new Thread(runnable, "fake-leetcode");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/submissions/", this::handleHistory);
+        server.createContext("/graphql/", this::handleGraphQL);
+        server.start();
+        faults.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    int getHistorySize() {
+        return history.size();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    private void add(HistoryEntry entry) {
+        history.add(entry);
+        byId.put(entry.id, entry);
+    }
+
+    private void handleHistory(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!admit(exchange)) {
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+            int limit = Integer.parseInt(query.getOrDefault("limit", "20"));
+            int end = Math.min(history.size(), offset + limit);
+
+            ObjectNode page = objectMapper.createObjectNode();
+            ArrayNode dump = page.putArray("submissions_dump");
+            for (int i = offset; i < end; i++) {
+                HistoryEntry entry = history.get(i);
+                dump.addObject()
+                        .put("id", entry.id)
+                        .put("title_slug", titleSlug(entry.problem))
+                        .put("timestamp", entry.timestamp)
+                        .put("lang", LANGUAGES[entry.problem % LANGUAGES.length])
+                        .put("status_display", entry.accepted ? "Accepted" : "Wrong Answer");
+            }
+            page.put("has_next", end < history.size());
+            page.put("last_key", end < history.size() ? "key-" + end : "");
+            send(exchange, 200, page);
+        }
+    }
+
+    private void handleGraphQL(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!admit(exchange)) {
+                return;
+            }
+
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String query = request.path("query").asText();
+            JsonNode variables = request.path("variables");
+            ObjectNode response = objectMapper.createObjectNode();
+            ObjectNode data = response.putObject("data");
+
+            if (query.contains("submissionDetails")) {
+                HistoryEntry entry = byId.get(variables.path("submissionId").asLong());
+                if (entry == null) {
+                    data.putNull("submissionDetails");
+                } else {
+                    ObjectNode details = data.putObject("submissionDetails");
+                    details.put("code", solutionCode(entry.problem, entry.id));
+                    details.put("timestamp", entry.timestamp);
+                    details.put("statusCode", entry.accepted ? 10 : 11);
+                    details.putObject("lang").put("name", LANGUAGES[entry.problem % LANGUAGES.length]);
+                    details.putObject("question")
+                            .put("titleSlug", titleSlug(entry.problem))
+                            .put("difficulty", entry.problem % 3 == 0 ? "Easy" : entry.problem % 3 == 1 ? "Medium" : "Hard");
+                    listener.fetched(titleSlug(entry.problem), System.nanoTime());
+                }
+            } else if (query.contains("userStatus")) {
+                data.putObject("userStatus").put("username", USERNAME).put("isSignedIn", true);
+            } else if (query.contains("recentAcSubmissionList")) {
+                ArrayNode recent = data.putArray("recentAcSubmissionList");
+                int limit = variables.path("limit").asInt(20);
+                for (HistoryEntry entry : history) {
+                    if (recent.size() >= limit) {
+                        break;
+                    }
+                    if (entry.accepted) {
+                        recent.addObject()
+                                .put("id", Long.toString(entry.id))
+                                .put("titleSlug", titleSlug(entry.problem))
+                                .put("timestamp", Long.toString(entry.timestamp));
+                    }
+                }
+            } else {
+                response.putArray("errors").addObject().put("message", "Unsupported query");
+            }
+            send(exchange, 200, response);
+        }
+    }
+
+    // Latency, faults and the login check shared by every endpoint; false once a response is sent
+    private boolean admit(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            faults.delay();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (faults.inOutage()) {
+            sendStatus(exchange, 503);
+            return false;
+        }
+        if (faults.shouldFail()) {
+            sendStatus(exchange, 500);
+            return false;
+        }
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookies == null || !cookies.contains("LEETCODE_SESSION=")) {
+            sendStatus(exchange, 403);
+            return false;
+        }
+        return true;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendStatus(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static final class HistoryEntry {
+        private final long id;
+        private final int problem;
+        private final long timestamp;
+        private final boolean accepted;
+
+        private HistoryEntry(long id, int problem, long timestamp, boolean accepted) {
+            this.id = id;
+            this.problem = problem;
+            this.timestamp = timestamp;
+            this.accepted = accepted;
+        }
+    }
+}
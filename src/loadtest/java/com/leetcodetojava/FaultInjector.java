@@ -0,0 +1,89 @@
+package com.leetcodetojava;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency, random errors and one outage window for a fake server, read from
+// loadtest.<server>.latency.ms, .jitter.ms, .error.rate, .outage.after.seconds and .outage.seconds
+final class FaultInjector {
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final long outageAfterNanos;
+    private final long outageNanos;
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder outageErrors = new LongAdder();
+    private volatile long startedAtNanos;
+
+    private FaultInjector(long latencyMillis, long jitterMillis, double errorRate, long outageAfterSeconds, long outageSeconds) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.outageAfterNanos = TimeUnit.SECONDS.toNanos(outageAfterSeconds);
+        this.outageNanos = TimeUnit.SECONDS.toNanos(outageSeconds);
+    }
+
+    static FaultInjector fromSystemProperties(String server, long latencyMillis, double errorRate, long outageAfterSeconds, long outageSeconds) {
+        String prefix = "loadtest." + server + ".";
+        return new FaultInjector(
+                Long.getLong(prefix + "latency.ms", latencyMillis),
+                Long.getLong(prefix + "jitter.ms", latencyMillis),
+                Double.parseDouble(System.getProperty(prefix + "error.rate", Double.toString(errorRate))),
+                Long.getLong(prefix + "outage.after.seconds", outageAfterSeconds),
+                Long.getLong(prefix + "outage.seconds", outageSeconds));
+    }
+
+    void start() {
+        startedAtNanos = System.nanoTime();
+    }
+
+    // Simulated network and server time: the base latency plus uniform jitter
+    void delay() throws InterruptedException {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    boolean inOutage() {
+        if (outageNanos <= 0) {
+            return false;
+        }
+        long elapsed = System.nanoTime() - startedAtNanos;
+        if (elapsed >= outageAfterNanos && elapsed < outageAfterNanos + outageNanos) {
+            outageErrors.increment();
+            return true;
+        }
+        return false;
+    }
+
+    boolean shouldFail() {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.increment();
+            return true;
+        }
+        return false;
+    }
+
+    boolean hasOutage() {
+        return outageNanos > 0;
+    }
+
+    // System.nanoTime() at which the outage ends
+    long getOutageEndNanos() {
+        return startedAtNanos + outageAfterNanos + outageNanos;
+    }
+
+    long getOutageSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(outageNanos);
+    }
+
+    long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    long getOutageErrors() {
+        return outageErrors.sum();
+    }
+}
@@ -0,0 +1,293 @@
+package com.leetcodetojava;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+import com.leetcodetojava.service.BackfillService;
+import com.leetcodetojava.service.GitHubService;
+import com.leetcodetojava.service.LeetCodeGraphQLClient;
+import com.leetcodetojava.service.SubmissionUploader;
+import com.leetcodetojava.service.UploadQueue;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// End-to-end load test: fake GitHub and LeetCode servers on localhost, the real upload pipeline
+// (UploadQueue, outbox journal and GitHubService, wired as LeetCodeUploader does) and synthetic
+// submissions. Reports throughput, submission-to-commit latency and how the pipeline recovers
+// from the injected failures. See the README for the knobs.
+//
+//   scenario=backfill  pages the fake history and fetches code over GraphQL, like "backfill"
+//   scenario=queue     hands submissions straight to the upload queue, like the live monitor
+public final class LoadTest {
+    private static final String ACCOUNT = "default";
+
+    private final String scenario = System.getProperty("loadtest.scenario", "backfill");
+    private final int submissions = Integer.getInteger("loadtest.submissions", 10_000);
+    private final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+    private final long timeoutMinutes = Long.getLong("loadtest.timeout.minutes", 60);
+    private final Path resultFile = Path.of(System.getProperty("loadtest.result", "target/loadtest/loadtest-result.json"));
+
+    // Submission-to-commit latency, keyed by problem slug: start is when the code was fetched
+    // (backfill) or handed to the queue (queue), end is when it first appears on the branch
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> committedAt = new ConcurrentHashMap<>();
+    private final AtomicLong firstCommitAfterOutage = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    private FaultInjector githubFaults;
+    private FaultInjector leetcodeFaults;
+    private FakeGitHubServer github;
+    private FakeLeetCodeServer leetcode;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTest().run());
+    }
+
+    private int run() throws Exception {
+        if (!"backfill".equals(scenario) && !"queue".equals(scenario)) {
+            System.err.println("Unknown loadtest.scenario " + scenario + "; use backfill or queue");
+            return 1;
+        }
+
+        githubFaults = FaultInjector.fromSystemProperties("github", 50, 0.01, 30, 15);
+        leetcodeFaults = FaultInjector.fromSystemProperties("leetcode", 30, 0, 0, 0);
+        github = new FakeGitHubServer(githubFaults, "loadtest", "solutions", "main",
+                Integer.getInteger("loadtest.github.rate.limit", 5000),
+                Integer.getInteger("loadtest.github.rate.window.seconds", 3600),
+                Double.parseDouble(System.getProperty("loadtest.github.secondary.rate", "0.002")),
+                this::onCommit);
+        leetcode = new FakeLeetCodeServer(leetcodeFaults, submissions,
+                (slug, nanoTime) -> startedAt.putIfAbsent(slug, nanoTime));
+
+        Path stateDir = Files.createTempDirectory("leetcode-loadtest");
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ConfigurationManager configManager = new ConfigurationManager(configuration(github.start(), leetcode.start(), stateDir));
+            GitHubService githubService = new GitHubService(configManager);
+            githubService.initialize();
+            SubmissionUploader uploader = LeetCodeUploader.createUploader(configManager, githubService);
+
+            // The backfill forces batch commits, as the real command does
+            UploadQueue uploadQueue = "backfill".equals(scenario)
+                    ? new UploadQueue(uploader, configManager, true)
+                    : new UploadQueue(uploader, configManager);
+            uploadQueue.start();
+            sampler.scheduleAtFixedRate(() -> peakQueueDepth.accumulateAndGet(uploadQueue.getQueueDepth(), Math::max),
+                    0, 100, TimeUnit.MILLISECONDS);
+
+            System.out.printf("Load test: %s scenario, %d submissions, state in %s%n", scenario, submissions, stateDir);
+            long startNanos = System.nanoTime();
+            int expected = "backfill".equals(scenario)
+                    ? runBackfill(githubService, uploadQueue, configManager)
+                    : runQueue(uploadQueue);
+
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+            while (!uploadQueue.awaitIdle(10, TimeUnit.SECONDS)) {
+                System.out.printf("  %d committed, %d queued%n", committedAt.size(), uploadQueue.getQueueDepth());
+                if (System.nanoTime() > deadline) {
+                    System.out.println("Timed out waiting for the upload queue to drain");
+                    break;
+                }
+            }
+            long endNanos = System.nanoTime();
+            uploadQueue.shutdown();
+
+            ObjectNode result = report(expected, startNanos, endNanos);
+            Files.createDirectories(resultFile.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), result);
+            System.out.println("Results written to " + resultFile.toAbsolutePath());
+            // Nothing may be lost; running out of fast retries only slows a submission down, it keeps
+            // being retried and must still be on the branch by the end
+            if (result.path("lost").asInt() > 0) {
+                System.out.println("FAILED: submissions were lost");
+                return 2;
+            }
+            return 0;
+        } finally {
+            sampler.shutdownNow();
+            github.stop();
+            leetcode.stop();
+            deleteRecursively(stateDir);
+        }
+    }
+
+    // Defaults of the application itself apply unless overridden with -Dapp.<key>=<value>
+    private BaseConfiguration configuration(String githubUrl, String leetcodeUrl, Path stateDir) {
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("github.token", "ghp_" + "0".repeat(36));
+        config.setProperty("github.repo", "https://github.com/loadtest/solutions");
+        config.setProperty("github.branch", "main");
+        config.setProperty("github.api.url", githubUrl);
+        config.setProperty("leetcode.base.url", leetcodeUrl);
+        config.setProperty("state.dir", stateDir.toString());
+
+        Properties properties = System.getProperties();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("app.")) {
+                config.setProperty(name.substring("app.".length()), properties.getProperty(name));
+            }
+        }
+        // Commits have to reach the fake GitHub to be measured
+        config.setProperty("upload.backend", "github");
+        return config;
+    }
+
+    private int runBackfill(GitHubService githubService, UploadQueue uploadQueue, ConfigurationManager configManager) throws Exception {
+        LeetCodeGraphQLClient client = new LeetCodeGraphQLClient(githubService.getHttpClient(), configManager);
+        client.updateCookies(Set.of(new Cookie("LEETCODE_SESSION", "loadtest"), new Cookie("csrftoken", "loadtest")));
+
+        BackfillService.BackfillReport report = new BackfillService(client, uploadQueue, configManager).backfill();
+        System.out.printf("Backfill listed %d, unique %d, queued %d, failed to fetch %d%n",
+                report.getListed(), report.getUnique(), report.getQueued(), report.getFetchFailed());
+        return report.getQueued();
+    }
+
+    // Like the monitor: a rejected submission is kept and offered again a moment later
+    private int runQueue(UploadQueue uploadQueue) throws InterruptedException {
+        CompactSubmission.Language[] languages = CompactSubmission.Language.values();
+        long intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        long nextAt = System.nanoTime();
+
+        for (int problem = 0; problem < submissions; problem++) {
+            if (intervalNanos > 0) {
+                long wait = nextAt - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextAt += intervalNanos;
+            }
+
+            String slug = FakeLeetCodeServer.titleSlug(problem);
+            Submission submission = new Submission(slug, languages[problem % languages.length].getId(),
+                    FakeLeetCodeServer.solutionCode(problem, problem).trim().replace("\r\n", "\n"));
+            submission.setStatus("Accepted");
+            submission.setSubmissionId(Long.toString(1_000_000L + problem));
+            startedAt.put(slug, System.nanoTime());
+            while (!uploadQueue.enqueue(submission, 1, TimeUnit.SECONDS)) {
+                if (!uploadQueue.isRunning()) {
+                    throw new IllegalStateException("Upload queue stopped");
+                }
+            }
+        }
+        return submissions;
+    }
+
+    // language/problem-00042.java -> problem-00042; index files are not submissions
+    private void onCommit(String path, long nanoTime) {
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        if (!fileName.startsWith("problem-")) {
+            return;
+        }
+        int dot = fileName.lastIndexOf('.');
+        committedAt.putIfAbsent(dot > 0 ? fileName.substring(0, dot) : fileName, nanoTime);
+        if (githubFaults.hasOutage() && nanoTime > githubFaults.getOutageEndNanos()) {
+            firstCommitAfterOutage.compareAndSet(0, nanoTime);
+        }
+    }
+
+    private ObjectNode report(int expected, long startNanos, long endNanos) {
+        long[] latencies = committedAt.entrySet().stream()
+                .filter(commit -> startedAt.containsKey(commit.getKey()))
+                .mapToLong(commit -> commit.getValue() - startedAt.get(commit.getKey()))
+                .sorted()
+                .toArray();
+        int committed = committedAt.size();
+        // A file that was committed but later dropped from the branch (a commit built on a stale
+        // ref or tree) is just as lost as one that never arrived
+        long onBranch = github.getHeadPaths().stream()
+                .map(path -> path.substring(path.lastIndexOf('/') + 1))
+                .filter(fileName -> fileName.startsWith("problem-"))
+                .count();
+        double seconds = (endNanos - startNanos) / 1e9;
+        MetricsRegistry metrics = MetricsRegistry.global();
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode result = mapper.createObjectNode();
+        result.put("scenario", scenario);
+        result.put("submissions", submissions);
+        result.put("expected", expected);
+        result.put("committed", committed);
+        result.put("onBranch", onBranch);
+        result.put("lost", Math.max(0, expected - Math.min(committed, onBranch)));
+        result.put("elapsedSeconds", round(seconds));
+        result.put("throughputPerSecond", round(committed / seconds));
+
+        ObjectNode latency = result.putObject("latencySeconds");
+        latency.put("p50", round(percentile(latencies, 0.50)));
+        latency.put("p90", round(percentile(latencies, 0.90)));
+        latency.put("p99", round(percentile(latencies, 0.99)));
+        latency.put("max", round(percentile(latencies, 1.0)));
+
+        ObjectNode recovery = result.putObject("recovery");
+        recovery.put("uploadRetries", (long) metrics.counter("leetcode_upload_retries_total", "", "account", ACCOUNT).get());
+        recovery.put("retriesExhausted", (long) metrics.counter("leetcode_upload_retries_exhausted_total", "", "account", ACCOUNT).get());
+        recovery.put("rateLimitRetries", (long) metrics.counter("leetcode_github_rate_limit_retries_total", "", "account", ACCOUNT).get());
+        recovery.put("githubInjectedErrors", githubFaults.getInjectedErrors());
+        recovery.put("githubOutageSeconds", githubFaults.hasOutage() ? githubFaults.getOutageSeconds() : 0);
+        recovery.put("githubOutageErrors", githubFaults.getOutageErrors());
+        recovery.put("secondsToFirstCommitAfterOutage", firstCommitAfterOutage.get() > 0
+                ? round((firstCommitAfterOutage.get() - githubFaults.getOutageEndNanos()) / 1e9) : -1);
+        recovery.put("githubPrimaryRateLimited", github.getPrimaryLimited());
+        recovery.put("githubSecondaryRateLimited", github.getSecondaryLimited());
+        recovery.put("leetcodeInjectedErrors", leetcodeFaults.getInjectedErrors() + leetcodeFaults.getOutageErrors());
+        recovery.put("peakQueueDepth", peakQueueDepth.get());
+
+        ObjectNode responses = result.putObject("githubResponses");
+        github.getResponseCounts().forEach((status, count) -> responses.put(Integer.toString(status), count));
+        result.put("githubFiles", github.getFileCount());
+        result.put("leetcodeRequests", leetcode.getRequests());
+
+        System.out.println();
+        System.out.printf("Committed:  %d of %d (%d on the branch, %d lost) in %.1f s, %.1f submissions/s%n",
+                committed, expected, onBranch, result.path("lost").asInt(), seconds, committed / seconds);
+        System.out.printf("Latency:    p50 %.2f s, p90 %.2f s, p99 %.2f s, max %.2f s (submission to commit)%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 1.0));
+        System.out.printf("Recovery:   %d upload retries, %d out of fast retries, %d rate-limit retries, first commit %s s after the outage%n",
+                recovery.path("uploadRetries").asLong(), recovery.path("retriesExhausted").asLong(),
+                recovery.path("rateLimitRetries").asLong(), recovery.path("secondsToFirstCommitAfterOutage").asText());
+        System.out.printf("GitHub:     %s, peak queue depth %d%n", github.getResponseCounts(), peakQueueDepth.get());
+        return result;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1e9;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.leetcodetojava;
 
 import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import com.leetcodetojava.metrics.MetricsServer;
+import com.leetcodetojava.service.BackfillService;
 import com.leetcodetojava.service.GitHubService;
+import com.leetcodetojava.service.LeetCodeGraphQLClient;
 import com.leetcodetojava.service.LeetCodeMonitorService;
+import com.leetcodetojava.service.LocalGitRepositoryService;
+import com.leetcodetojava.service.RepositorySyncService;
+import com.leetcodetojava.service.SolutionIndex;
+import com.leetcodetojava.service.SubmissionArchive;
+import com.leetcodetojava.service.SubmissionUploader;
+import com.leetcodetojava.service.UploadQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
@@ -14,40 +25,83 @@ public class LeetCodeUploader {
     private static final Logger logger = LoggerFactory.getLogger(LeetCodeUploader.class);
     
     private final ConfigurationManager configManager;
-    private final LeetCodeMonitorService monitorService;
     private final GitHubService githubService;
+    private LeetCodeMonitorService monitorService;
+    private UploadQueue uploadQueue;
+    private MonitorSupervisor supervisor;
+    private MetricsServer metricsServer;
     private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> nextCheck;
     
     public LeetCodeUploader() {
         this.configManager = new ConfigurationManager();
         this.githubService = new GitHubService(configManager);
-        this.monitorService = new LeetCodeMonitorService(githubService);
         this.executor = Executors.newScheduledThreadPool(1);
     }
     
     public static void main(String[] args) {
         System.out.println("=== LeetCode Uploader ===");
+        
+        LeetCodeUploader uploader = new LeetCodeUploader();
+        
+        if (args.length > 0 && "sync".equalsIgnoreCase(args[0])) {
+            System.out.println("Syncing archived solutions with the GitHub repository...");
+            System.out.println();
+            uploader.sync();
+            return;
+        }
+        
+        if (args.length > 0 && "backfill".equalsIgnoreCase(args[0])) {
+            System.out.println("Importing your accepted LeetCode history...");
+            System.out.println("Log in to LeetCode in the browser window if asked");
+            System.out.println();
+            uploader.backfill();
+            return;
+        }
+        
         System.out.println("Starting LeetCode submission monitor...");
         System.out.println("Keep this program running while solving LeetCode problems");
         System.out.println("Press Ctrl+C to stop the program");
         System.out.println();
         
-        LeetCodeUploader uploader = new LeetCodeUploader();
         uploader.start();
     }
     
+    private void loadConfiguration() throws Exception {
+        if (!configManager.loadConfiguration()) {
+            logger.error("Failed to load configuration. Please check config.properties file.");
+            System.exit(1);
+        }
+        
+        if (!configManager.getAccountNames().isEmpty()) {
+            // Each account is validated and initialized by the supervisor against its own overlay
+            return;
+        }
+        
+        if (!configManager.validateConfiguration()) {
+            logger.error("Invalid configuration. Please check your GitHub token and repository settings.");
+            System.exit(1);
+        }
+        
+        githubService.initialize();
+    }
+    
     public void start() {
         try {
-            if (!configManager.loadConfiguration()) {
-                logger.error("Failed to load configuration. Please check config.properties file.");
-                System.exit(1);
-            }
+            loadConfiguration();
+            startMetricsServer();
             
-            if (!configManager.validateConfiguration()) {
-                logger.error("Invalid configuration. Please check your GitHub token and repository settings.");
-                System.exit(1);
+            if (!configManager.getAccountNames().isEmpty()) {
+                this.supervisor = new MonitorSupervisor(configManager);
+                supervisor.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+                return;
             }
             
+            this.uploadQueue = new UploadQueue(createUploader(configManager, githubService), configManager);
+            this.monitorService = new LeetCodeMonitorService(githubService, uploadQueue);
+            uploadQueue.start();
+            
             logger.info("Configuration loaded successfully");
             logger.info("GitHub Repository: {}", configManager.getGitHubRepo());
             logger.info("Monitoring LeetCode submissions...");
@@ -62,22 +116,156 @@ public class LeetCodeUploader {
         }
     }
     
+    private void startMetricsServer() throws Exception {
+        int port = configManager.getMetricsPort();
+        if (port > 0) {
+            metricsServer = new MetricsServer(MetricsRegistry.global(), configManager.getMetricsBindAddress(), port);
+            metricsServer.start();
+        }
+    }
+    
+    public void sync() {
+        try {
+            loadConfiguration();
+            requireSingleAccount("sync");
+            
+            if ("local-git".equalsIgnoreCase(configManager.getUploadBackend())) {
+                logger.error("Sync compares against the GitHub repository tree and needs upload.backend=github");
+                System.exit(1);
+            }
+            createUploader(configManager, githubService);
+            
+            SubmissionArchive archive = new SubmissionArchive(configManager.getArchiveDirectory());
+            RepositorySyncService.SyncReport report = new RepositorySyncService(githubService, archive).sync();
+            
+            System.out.println("In sync: " + report.getInSync());
+            System.out.println("Missing: " + report.getMissing());
+            System.out.println("Stale:   " + report.getStale());
+            System.out.println("Uploaded " + report.getUploaded() + ", failed " + report.getFailed());
+            
+            System.exit(report.getFailed() == 0 ? 0 : 2);
+            
+        } catch (Exception e) {
+            logger.error("Sync failed", e);
+            System.exit(1);
+        }
+    }
+    
+    public void backfill() {
+        try {
+            loadConfiguration();
+            requireSingleAccount("backfill");
+            
+            this.uploadQueue = new UploadQueue(createUploader(configManager, githubService), configManager, true);
+            this.monitorService = new LeetCodeMonitorService(githubService, uploadQueue);
+            uploadQueue.start();
+            
+            // The browser is only needed for the login; the history is read over HTTP
+            LeetCodeGraphQLClient client = new LeetCodeGraphQLClient(githubService.getHttpClient(), configManager);
+            client.updateCookies(monitorService.waitForLogin());
+            monitorService.shutdown();
+            
+            String signedInUser = client.fetchSignedInUsername();
+            String configuredUser = configManager.getLeetCodeUsername();
+            if (signedInUser == null) {
+                logger.error("LeetCode did not accept the browser session");
+                System.exit(1);
+            }
+            if (!configuredUser.isEmpty() && !configuredUser.startsWith("your_") && !configuredUser.equalsIgnoreCase(signedInUser)) {
+                logger.error("Logged in as {} but leetcode.username is {}; refusing to import another account's history",
+                        signedInUser, configuredUser);
+                System.exit(1);
+            }
+            logger.info("Backfilling accepted submissions of {}", signedInUser);
+            
+            BackfillService.BackfillReport report = new BackfillService(client, uploadQueue, configManager).backfill();
+            
+            while (!uploadQueue.awaitIdle(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for {} queued uploads ({} KB in memory)", uploadQueue.getQueueDepth(),
+                        uploadQueue.getBacklogHeapBytes() / 1024);
+            }
+            uploadQueue.shutdown();
+            
+            System.out.println("Listed:   " + report.getListed() + " submissions (" + report.getAccepted() + " accepted)");
+            System.out.println("Unique:   " + report.getUnique() + " problem/language pairs");
+            System.out.println("Skipped:  " + report.getUnsupported() + " in unsupported languages");
+            System.out.println("Queued:   " + report.getQueued() + ", failed to fetch " + report.getFetchFailed());
+            
+            System.exit(report.getFetchFailed() == 0 ? 0 : 2);
+            
+        } catch (Exception e) {
+            logger.error("Backfill failed", e);
+            System.exit(1);
+        }
+    }
+    
+    private void requireSingleAccount(String command) {
+        if (!configManager.getAccountNames().isEmpty()) {
+            logger.error("{} works on one account; run it with a config.properties that does not set accounts", command);
+            System.exit(1);
+        }
+    }
+    
+    static SubmissionUploader createUploader(ConfigurationManager configManager, GitHubService githubService) throws Exception {
+        SolutionIndex solutionIndex = null;
+        if (configManager.isSolutionIndexEnabled()) {
+            solutionIndex = new SolutionIndex(configManager.getStateDirectory().resolve("solutions-index.json"),
+                    configManager.getIndexReadmePath(), configManager.getIndexManifestPath());
+        }
+        
+        if ("local-git".equalsIgnoreCase(configManager.getUploadBackend())) {
+            LocalGitRepositoryService localGit = new LocalGitRepositoryService(configManager);
+            localGit.initialize();
+            if (solutionIndex != null) {
+                localGit.setSolutionIndex(solutionIndex);
+            }
+            logger.info("Using local git backend at {}", configManager.getLocalGitDirectory().toAbsolutePath());
+            return localGit;
+        }
+        
+        if (solutionIndex != null) {
+            githubService.setSolutionIndex(solutionIndex);
+        }
+        return githubService;
+    }
+    
     private void startMonitoring() {
-        executor.scheduleAtFixedRate(() -> {
+        scheduleNextCheck(0);
+        
+        if ("cdp".equalsIgnoreCase(configManager.getDetectionMode())) {
+            logger.info("Monitoring started. Listening for submissions, health check every {} seconds...",
+                    configManager.getHealthCheckSeconds());
+        } else {
+            logger.info("Monitoring started. Checking for submissions every {} ms to {} seconds depending on activity...",
+                    configManager.getMonitorMinIntervalMillis(), configManager.getMonitorMaxIntervalSeconds());
+        }
+    }
+    
+    // Each check schedules the next one with a delay the monitor picks from the page state
+    private synchronized void scheduleNextCheck(long delayMillis) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        nextCheck = executor.schedule(() -> {
             try {
                 monitorService.checkForSubmissions();
             } catch (Exception e) {
                 logger.error("Error during submission monitoring", e);
+            } finally {
+                scheduleNextCheck(monitorService.getNextCheckDelayMillis());
             }
-        }, 0, 3, TimeUnit.SECONDS);
-        
-        logger.info("Monitoring started. Checking for submissions every 3 seconds...");
+        }, delayMillis, TimeUnit.MILLISECONDS);
     }
     
     public void shutdown() {
         logger.info("Shutting down LeetCode Uploader...");
         
-        executor.shutdown();
+        synchronized (this) {
+            if (nextCheck != null) {
+                nextCheck.cancel(false);
+            }
+            executor.shutdown();
+        }
         try {
             if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
                 executor.shutdownNow();
@@ -87,6 +275,19 @@ public class LeetCodeUploader {
             Thread.currentThread().interrupt();
         }
         
+        if (supervisor != null) {
+            supervisor.shutdown();
+        }
+        if (monitorService != null) {
+            monitorService.shutdown();
+        }
+        if (uploadQueue != null) {
+            uploadQueue.shutdown();
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        
         logger.info("LeetCode Uploader stopped.");
     }
 } 
\ No newline at end of file
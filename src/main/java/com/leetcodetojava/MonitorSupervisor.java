@@ -0,0 +1,220 @@
+package com.leetcodetojava;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import com.leetcodetojava.service.GitHubService;
+import com.leetcodetojava.service.LeetCodeMonitorService;
+import com.leetcodetojava.service.UploadQueue;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs one isolated monitor session per configured account in a single JVM. Sessions share one
+// OkHttp connection pool and a small worker pool; each check is a short task handed to the pool
+// when its session is due, so no session holds a thread while it waits and due sessions are
+// served in the order they became due.
+public class MonitorSupervisor {
+    private static final Logger logger = LoggerFactory.getLogger(MonitorSupervisor.class);
+
+    private final ConfigurationManager configManager;
+    private final OkHttpClient sharedClient;
+    private final List<MonitorSession> sessions;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final AtomicBoolean running;
+
+    public MonitorSupervisor(ConfigurationManager configManager) {
+        this.configManager = configManager;
+        this.sharedClient = new OkHttpClient.Builder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .build();
+        this.sessions = new ArrayList<>();
+        this.timer = Executors.newSingleThreadScheduledExecutor(namedThreads("supervisor-timer"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, configManager.getSupervisorThreads()), namedThreads("session-worker"));
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.running = new AtomicBoolean(false);
+    }
+
+    public void start() throws Exception {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (threadBean.isThreadCpuTimeSupported()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        if (threadBean.isThreadAllocatedMemorySupported()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        for (String name : configManager.getAccountNames()) {
+            ConfigurationManager accountConfig = configManager.forAccount(name);
+            if (!accountConfig.validateConfiguration()) {
+                logger.error("Skipping account {}: invalid configuration", name);
+                continue;
+            }
+
+            GitHubService githubService = new GitHubService(accountConfig, sharedClient);
+            githubService.initialize();
+            UploadQueue uploadQueue = new UploadQueue(LeetCodeUploader.createUploader(accountConfig, githubService), accountConfig);
+            LeetCodeMonitorService monitor = new LeetCodeMonitorService(githubService, uploadQueue);
+            uploadQueue.start();
+
+            MonitorSession session = new MonitorSession(name, monitor, uploadQueue);
+            sessions.add(session);
+            registerMetrics(session);
+            schedule(session, 0);
+            logger.info("Started session for account {} -> {}", name, accountConfig.getGitHubRepo());
+        }
+
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No account could be started");
+        }
+
+        int reportSeconds = configManager.getSupervisorReportSeconds();
+        if (reportSeconds > 0) {
+            timer.scheduleAtFixedRate(this::logReport, reportSeconds, reportSeconds, TimeUnit.SECONDS);
+        }
+        logger.info("Supervising {} sessions on {} worker threads", sessions.size(), configManager.getSupervisorThreads());
+    }
+
+    private void schedule(MonitorSession session, long delayMillis) {
+        if (!running.get()) {
+            return;
+        }
+        timer.schedule(() -> workers.execute(() -> runCheck(session)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // One check of one session on a pooled thread, with the thread's CPU time and allocation
+    // charged to that session. Upload work runs on the session's own queue threads and is not counted.
+    private void runCheck(MonitorSession session) {
+        long threadId = Thread.currentThread().getId();
+        long cpuBefore = threadBean.getCurrentThreadCpuTime();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        try {
+            session.monitor.checkForSubmissions();
+        } catch (Exception e) {
+            logger.error("Error during submission monitoring for {}", session.name, e);
+        } finally {
+            session.checks.incrementAndGet();
+            if (cpuBefore >= 0) {
+                session.cpuNanos.addAndGet(threadBean.getCurrentThreadCpuTime() - cpuBefore);
+            }
+            if (allocatedBefore >= 0) {
+                session.allocatedBytes.addAndGet(threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+            }
+            schedule(session, session.monitor.getNextCheckDelayMillis());
+        }
+    }
+
+    private void registerMetrics(MonitorSession session) {
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.gauge("leetcode_session_cpu_seconds", "CPU time spent in this account's submission checks",
+                () -> session.cpuNanos.get() / 1e9, "account", session.name);
+        metrics.gauge("leetcode_session_allocated_bytes", "Heap allocated by this account's submission checks",
+                session.allocatedBytes::get, "account", session.name);
+        metrics.gauge("leetcode_session_browser_bytes", "Memory used by this account's Chrome (-1 when unknown)",
+                session.monitor::getBrowserMemoryBytes, "account", session.name);
+    }
+
+    private void logReport() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        logger.info("Supervisor: {} sessions, heap used {} MB of {} MB", sessions.size(),
+                heap.getUsed() / (1024 * 1024), heap.getCommitted() / (1024 * 1024));
+        for (MonitorSession session : sessions) {
+            long browserMemory = session.monitor.getBrowserMemoryBytes();
+            logger.info("  {}: {} checks, {} ms CPU, {} MB allocated, {} uploads queued ({} KB), Chrome {}",
+                    session.name, session.checks.get(), session.cpuNanos.get() / 1_000_000,
+                    session.allocatedBytes.get() / (1024 * 1024), session.uploadQueue.getQueueDepth(),
+                    session.uploadQueue.getBacklogHeapBytes() / 1024, browserMemory >= 0 ? browserMemory / (1024 * 1024) + " MB" : "n/a");
+        }
+    }
+
+    public List<MonitorSession> getSessions() {
+        return sessions;
+    }
+
+    public void shutdown() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        for (MonitorSession session : sessions) {
+            session.monitor.shutdown();
+            session.uploadQueue.shutdown();
+        }
+        logReport();
+        sharedClient.dispatcher().executorService().shutdown();
+        sharedClient.connectionPool().evictAll();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+    }
+
+    public static class MonitorSession {
+        private final String name;
+        private final LeetCodeMonitorService monitor;
+        private final UploadQueue uploadQueue;
+        private final AtomicLong checks;
+        private final AtomicLong cpuNanos;
+        private final AtomicLong allocatedBytes;
+
+        private MonitorSession(String name, LeetCodeMonitorService monitor, UploadQueue uploadQueue) {
+            this.name = name;
+            this.monitor = monitor;
+            this.uploadQueue = uploadQueue;
+            this.checks = new AtomicLong();
+            this.cpuNanos = new AtomicLong();
+            this.allocatedBytes = new AtomicLong();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getChecks() {
+            return checks.get();
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos.get();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.get();
+        }
+
+        public int getQueueDepth() {
+            return uploadQueue.getQueueDepth();
+        }
+    }
+}
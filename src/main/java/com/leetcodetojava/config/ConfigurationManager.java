@@ -1,5 +1,7 @@
 package com.leetcodetojava.config;
 
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.CompositeConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
 import org.apache.commons.configuration2.ex.ConfigurationException;
@@ -9,6 +11,9 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ConfigurationManager {
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationManager.class);
@@ -19,10 +24,17 @@ public class ConfigurationManager {
     private String githubRepo;
     private String githubRepoOwner;
     private String githubRepoName;
+    private String accountName;
     
     public ConfigurationManager() {
     }
     
+    // Wraps settings built in code instead of reading config.properties, e.g. for the load test
+    public ConfigurationManager(Configuration config) {
+        this.config = config;
+        loadValues();
+    }
+    
     public boolean loadConfiguration() {
         try {
             Configurations configs = new Configurations();
@@ -52,6 +64,12 @@ public class ConfigurationManager {
             String defaultConfig = "# GitHub Configuration\n" +
                     "github.token=your_github_personal_access_token_here\n" +
                     "github.repo=https://github.com/yourusername/yourrepo\n" +
+                    "github.branch=main\n" +
+                    "\n" +
+                    "# Commit several accepted solutions together via the Git Data API\n" +
+                    "github.batch.enabled=false\n" +
+                    "github.batch.size=20\n" +
+                    "github.batch.max.delay.seconds=60\n" +
                     "\n" +
                     "# LeetCode Configuration (optional)\n" +
                     "leetcode.username=your_leetcode_username\n" +
@@ -68,6 +86,49 @@ public class ConfigurationManager {
         }
     }
     
+    // Account names listed in "accounts"; empty for the usual single-user setup
+    public List<String> getAccountNames() {
+        List<String> names = new ArrayList<>();
+        for (String name : config.getString("accounts", "").split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+    
+    // A view in which account.<name>.<key> overrides <key>. Unless overridden, the account keeps its
+    // state and browser profile under <state.dir>/accounts/<name>.
+    public ConfigurationManager forAccount(String name) {
+        Configuration accountConfig = config.subset("account." + name);
+        String stateDir = accountConfig.getString("state.dir", "");
+        Path accountState = stateDir.isEmpty() ? getStateDirectory().resolve("accounts").resolve(name) : Path.of(stateDir);
+        BaseConfiguration accountDefaults = new BaseConfiguration();
+        accountDefaults.setProperty("state.dir", accountState.toString());
+        accountDefaults.setProperty("browser.profile.dir", accountState.resolve("chrome-profile").toString());
+        
+        CompositeConfiguration overlay = new CompositeConfiguration();
+        overlay.addConfiguration(accountConfig);
+        overlay.addConfiguration(accountDefaults);
+        overlay.addConfiguration(config);
+        
+        ConfigurationManager account = new ConfigurationManager();
+        account.config = overlay;
+        account.accountName = name;
+        account.loadValues();
+        return account;
+    }
+    
+    // Null outside multi-account mode
+    public String getAccountName() {
+        return accountName;
+    }
+    
+    // Value of the "account" label on metrics
+    public String getAccountLabel() {
+        return accountName != null ? accountName : "default";
+    }
+    
     private void loadValues() {
         githubToken = config.getString("github.token", "");
         githubRepo = config.getString("github.repo", "");
@@ -135,6 +196,147 @@ public class ConfigurationManager {
         return githubRepoName;
     }
     
+    public String getGitHubApiUrl() {
+        String apiUrl = config.getString("github.api.url", "https://api.github.com");
+        return apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+    }
+    
+    public String getGitHubBranch() {
+        return config.getString("github.branch", "main");
+    }
+    
+    public int getGitHubMaxConcurrentRequests() {
+        return config.getInt("github.max.concurrent.requests", 4);
+    }
+    
+    public int getGitHubReadReserve() {
+        return config.getInt("github.ratelimit.read.reserve", 100);
+    }
+    
+    public long getGitHubWriteIntervalMillis() {
+        return config.getLong("github.write.interval.ms", 1000L);
+    }
+    
+    public boolean isBatchCommitEnabled() {
+        return config.getBoolean("github.batch.enabled", false);
+    }
+    
+    public int getBatchSize() {
+        return config.getInt("github.batch.size", 20);
+    }
+    
+    public int getBatchMaxDelaySeconds() {
+        return config.getInt("github.batch.max.delay.seconds", 60);
+    }
+    
+    public String getUploadBackend() {
+        return config.getString("upload.backend", "github");
+    }
+    
+    public Path getLocalGitDirectory() {
+        String directory = config.getString("git.local.dir", "");
+        return directory.isEmpty() ? getStateDirectory().resolve("repo") : Path.of(directory);
+    }
+    
+    public String getLocalGitRemoteUrl() {
+        String remote = config.getString("git.remote.url", "");
+        if (!remote.isEmpty()) {
+            return remote;
+        }
+        return githubRepo.endsWith(".git") ? githubRepo : githubRepo + ".git";
+    }
+    
+    public int getLocalGitPushIntervalSeconds() {
+        return config.getInt("git.push.interval.seconds", 60);
+    }
+    
+    public int getLocalGitPushBatchSize() {
+        return config.getInt("git.push.batch.size", 20);
+    }
+    
+    public boolean isSolutionIndexEnabled() {
+        return config.getBoolean("index.enabled", false);
+    }
+    
+    public String getIndexReadmePath() {
+        return config.getString("index.readme.path", "README.md");
+    }
+    
+    public String getIndexManifestPath() {
+        return config.getString("index.manifest.path", "solutions.json");
+    }
+    
+    public int getUploadQueueCapacity() {
+        return config.getInt("upload.queue.capacity", 100);
+    }
+    
+    public int getUploadWorkers() {
+        return config.getInt("upload.workers", 2);
+    }
+    
+    public int getUploadMaxAttempts() {
+        return config.getInt("upload.max.attempts", 6);
+    }
+    
+    public long getUploadRetryBaseDelayMillis() {
+        return config.getLong("upload.retry.base.delay.ms", 1000L);
+    }
+    
+    public long getUploadRetryMaxDelayMillis() {
+        return config.getLong("upload.retry.max.delay.ms", 60000L);
+    }
+    
+    public int getUploadDeflateThresholdBytes() {
+        return config.getInt("upload.deflate.threshold.bytes", 2048);
+    }
+    
+    public int getOutboxCompactThreshold() {
+        return config.getInt("outbox.compact.threshold", 1000);
+    }
+    
+    public Path getStateDirectory() {
+        return Path.of(config.getString("state.dir", ".leetcode-uploader"));
+    }
+    
+    // Chrome user data directory, kept between runs so the LeetCode login survives restarts;
+    // null ("none") lets Chrome use a fresh temporary profile
+    public Path getBrowserProfileDirectory() {
+        String directory = config.getString("browser.profile.dir", "");
+        if ("none".equalsIgnoreCase(directory)) {
+            return null;
+        }
+        return directory.isEmpty() ? getStateDirectory().resolve("chrome-profile") : Path.of(directory);
+    }
+    
+    public boolean isStandbyBrowserEnabled() {
+        return config.getBoolean("browser.standby.enabled", false);
+    }
+    
+    // Port of the Prometheus metrics endpoint; 0 leaves it off
+    public int getMetricsPort() {
+        return config.getInt("metrics.port", 0);
+    }
+    
+    public String getMetricsBindAddress() {
+        return config.getString("metrics.bind.address", "127.0.0.1");
+    }
+    
+    public int getSupervisorThreads() {
+        return config.getInt("supervisor.threads", Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    public int getSupervisorReportSeconds() {
+        return config.getInt("supervisor.report.seconds", 300);
+    }
+    
+    public Path getArchiveDirectory() {
+        return getStateDirectory().resolve("archive");
+    }
+    
+    public int getHttpCacheSizeMb() {
+        return config.getInt("http.cache.size.mb", 10);
+    }
+    
     public int getMonitorIntervalSeconds() {
         return config.getInt("monitor.interval.seconds", 3);
     }
@@ -143,6 +345,84 @@ public class ConfigurationManager {
         return config.getBoolean("browser.headless", true);
     }
     
+    // Blocks images, fonts, media and trackers; on by default for headless runs, where nobody sees the page
+    public boolean isLeanBrowserMode() {
+        return config.getBoolean("browser.lean", isHeadlessMode());
+    }
+    
+    public List<String> getExtraBlockedUrls() {
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : config.getString("browser.blocked.urls", "").split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        return patterns;
+    }
+    
+    public String getLeetCodeBaseUrl() {
+        String baseUrl = config.getString("leetcode.base.url", "https://leetcode.com");
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+    
+    public String getLeetCodeGraphQLUrl() {
+        return config.getString("leetcode.graphql.url", getLeetCodeBaseUrl() + "/graphql/");
+    }
+    
+    // dom: scrape the open page each tick; graphql: ask LeetCode's API using the browser's login;
+    // cdp: listen to the browser's own network traffic through Chrome DevTools
+    public String getDetectionMode() {
+        return config.getString("leetcode.detection.mode", "dom");
+    }
+    
+    public int getGraphQLRecentLimit() {
+        return config.getInt("leetcode.graphql.recent.limit", 20);
+    }
+    
+    // Fastest poll, used right after a submit and while the user is editing
+    public long getMonitorMinIntervalMillis() {
+        return config.getLong("monitor.interval.min.ms", 1000L);
+    }
+    
+    // Slowest poll, reached by backing off while the browser is idle or away from LeetCode
+    public int getMonitorMaxIntervalSeconds() {
+        return config.getInt("monitor.interval.max.seconds", 60);
+    }
+    
+    // Background tabs read per check in addition to the current tab and any busy ones
+    public int getMonitorTabsPerTick() {
+        return config.getInt("monitor.tabs.per.tick", 2);
+    }
+    
+    // Handled submission IDs kept on disk; past this the oldest are forgotten
+    public int getMonitorSeenIdsMax() {
+        return config.getInt("monitor.seen.ids.max", 500_000);
+    }
+    
+    public int getHealthCheckSeconds() {
+        return config.getInt("monitor.health.check.seconds", 30);
+    }
+    
+    public int getLoginTimeoutSeconds() {
+        return config.getInt("leetcode.login.timeout.seconds", 300);
+    }
+    
+    public int getBackfillConcurrency() {
+        return config.getInt("backfill.concurrency", 4);
+    }
+    
+    public int getBackfillPageSize() {
+        return config.getInt("backfill.page.size", 20);
+    }
+    
+    public long getBackfillPageDelayMillis() {
+        return config.getLong("backfill.page.delay.ms", 500L);
+    }
+    
+    public int getCookieRefreshSeconds() {
+        return config.getInt("leetcode.cookie.refresh.seconds", 300);
+    }
+    
     public String getLeetCodeUsername() {
         return config.getString("leetcode.username", "");
     }
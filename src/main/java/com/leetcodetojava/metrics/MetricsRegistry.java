@@ -0,0 +1,194 @@
+package com.leetcodetojava.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// In-process counters, gauges and histograms, rendered in the Prometheus text format by
+// MetricsServer. Metrics are keyed by name plus label values; asking for the same ones again
+// returns the same instance, so callers on hot paths can keep it in a field.
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    // Seconds; wide enough for a 5 ms snapshot script and a 30 s GitHub timeout alike
+    public static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+    public static final double[] COUNT_BUCKETS = {0, 1, 2, 3, 5, 8, 13, 21, 34, 55};
+
+    private final Map<String, Family> families;
+
+    public MetricsRegistry() {
+        this.families = new ConcurrentHashMap<>();
+    }
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    // labels: alternating names and values, e.g. "account", "default", "status", "200"
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").metrics.computeIfAbsent(labelKey(labels), key -> new Counter());
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) family(name, help, "histogram").metrics.computeIfAbsent(labelKey(labels), key -> new Histogram(buckets));
+    }
+
+    // Read when scraped; registering the same name and labels again replaces the supplier
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").metrics.put(labelKey(labels), new Gauge(value));
+    }
+
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Family> entry : new TreeMap<>(families).entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+                String labels = metric.getKey();
+                Object value = metric.getValue();
+                if (value instanceof Counter) {
+                    line(out, name, labels, ((Counter) value).get());
+                } else if (value instanceof Gauge) {
+                    line(out, name, labels, ((Gauge) value).get());
+                } else {
+                    ((Histogram) value).render(out, name, labels);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String labelKey(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            key.append(key.length() == 0 ? "" : ",").append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return key.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void line(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String help;
+        private final String type;
+        private final Map<String, Object> metrics;
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+            this.metrics = new ConcurrentHashMap<>();
+        }
+    }
+
+    public static final class Counter {
+        private final DoubleAdder value = new DoubleAdder();
+
+        public void increment() {
+            value.add(1);
+        }
+
+        public void add(double amount) {
+            value.add(amount);
+        }
+
+        public double get() {
+            return value.sum();
+        }
+    }
+
+    private static final class Gauge {
+        private final DoubleSupplier supplier;
+
+        private Gauge(DoubleSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        private double get() {
+            try {
+                return supplier.getAsDouble();
+            } catch (RuntimeException e) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    public static final class Histogram {
+        private final double[] bounds;
+        private final LongAdder[] buckets; // per bucket, not cumulative; summed when rendered
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Histogram(double[] bounds) {
+            this.bounds = bounds.clone();
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        // For latency histograms: the time since a System.nanoTime() reading, in seconds
+        public void observeSince(long startNanos) {
+            observe((System.nanoTime() - startNanos) / 1e9);
+        }
+
+        private void render(StringBuilder out, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                line(out, name + "_bucket", prefix + "le=\"" + format(bounds[i]) + "\"", cumulative);
+            }
+            long total = count.sum();
+            line(out, name + "_bucket", prefix + "le=\"+Inf\"", total);
+            line(out, name + "_sum", labels, sum.sum());
+            line(out, name + "_count", labels, total);
+        }
+    }
+}
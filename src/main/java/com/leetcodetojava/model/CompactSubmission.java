@@ -0,0 +1,323 @@
+package com.leetcodetojava.model;
+
+import com.leetcodetojava.service.GitBlobHasher;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Immutable, memory-lean copy of a Submission for backlogs that sit in memory for a long time
+// (the outbox and the upload queue). Code is kept as UTF-8 bytes, deflated when that pays off,
+// language and status are enums, and the git blob id of the code is computed once up front.
+public final class CompactSubmission {
+    // Rough HotSpot sizes with compressed oops, used only for reporting
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int STRING_SHALLOW = 24;
+
+    private final String problemName;
+    private final Language language;
+    private final String otherLanguage; // only set when the name is not one of Language
+    private final Status status;
+    private final String otherStatus; // only set when the label is not one of Status, so it is not lost
+    private final String difficulty;
+    private final String submissionId;
+    private final long timestamp;
+    private final byte[] code;
+    private final int codeLength; // of the UTF-8 bytes before deflating
+    private final boolean deflated;
+    private final String contentSha;
+    private final int heapBytes;
+
+    private CompactSubmission(Submission submission, int deflateThreshold) {
+        this.problemName = submission.getProblemName();
+        this.language = Language.fromId(submission.getLanguage());
+        this.otherLanguage = language == null ? submission.getLanguage() : null;
+        this.status = Status.fromLabel(submission.getStatus());
+        this.otherStatus = status == Status.UNKNOWN && !Status.UNKNOWN.label.equals(submission.getStatus())
+                ? submission.getStatus() : null;
+        this.difficulty = canonicalDifficulty(submission.getDifficulty());
+        this.submissionId = submission.getSubmissionId();
+        this.timestamp = submission.getTimestamp();
+
+        byte[] utf8 = submission.getCode() != null ? submission.getCode().getBytes(StandardCharsets.UTF_8) : null;
+        this.codeLength = utf8 != null ? utf8.length : -1;
+        this.contentSha = utf8 != null ? GitBlobHasher.blobSha(utf8) : null;
+
+        byte[] packed = utf8 != null && deflateThreshold > 0 && utf8.length >= deflateThreshold ? deflate(utf8) : null;
+        this.deflated = packed != null && packed.length < utf8.length;
+        this.code = deflated ? packed : utf8;
+        this.heapBytes = (int) measureHeapBytes();
+    }
+
+    // deflateThreshold: code of at least this many UTF-8 bytes is deflated; 0 keeps it raw
+    public static CompactSubmission of(Submission submission, int deflateThreshold) {
+        return new CompactSubmission(submission, deflateThreshold);
+    }
+
+    // A fresh mutable copy, for uploaders that work with Submission
+    public Submission toSubmission() {
+        Submission submission = new Submission(problemName, getLanguage(), getCode());
+        submission.setStatus(getStatusLabel());
+        submission.setDifficulty(difficulty);
+        submission.setSubmissionId(submissionId);
+        submission.setTimestamp(timestamp);
+        return submission;
+    }
+
+    public String getProblemName() {
+        return problemName;
+    }
+
+    public String getLanguage() {
+        return language != null ? language.id : otherLanguage;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // The label as it came in, including ones Status does not know
+    public String getStatusLabel() {
+        return otherStatus != null ? otherStatus : status != null ? status.label : null;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getCode() {
+        byte[] utf8 = getCodeBytes();
+        return utf8 != null ? new String(utf8, StandardCharsets.UTF_8) : null;
+    }
+
+    // The UTF-8 encoding of the code; a new array on every call
+    public byte[] getCodeBytes() {
+        if (code == null) {
+            return null;
+        }
+        return deflated ? inflate(code, codeLength) : code.clone();
+    }
+
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    // Git blob id of the UTF-8 code, the same value GitHub reports as the file's sha
+    public String getContentSha() {
+        return contentSha;
+    }
+
+    // Approximate retained heap of this object; enum and canonical difficulty strings are shared
+    public long estimateHeapBytes() {
+        return heapBytes;
+    }
+
+    private long measureHeapBytes() {
+        long size = align(OBJECT_HEADER + 9 * 4 + 8 + 4 + 4 + 1);
+        size += stringBytes(problemName) + stringBytes(otherLanguage) + stringBytes(otherStatus)
+                + stringBytes(submissionId) + stringBytes(contentSha);
+        if (difficulty != null && !difficulty.equals("Easy") && !difficulty.equals("Medium") && !difficulty.equals("Hard")) {
+            size += stringBytes(difficulty);
+        }
+        if (code != null) {
+            size += align(ARRAY_HEADER + code.length);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactSubmission)) {
+            return false;
+        }
+        CompactSubmission other = (CompactSubmission) o;
+        return timestamp == other.timestamp
+                && Objects.equals(problemName, other.problemName)
+                && Objects.equals(getLanguage(), other.getLanguage())
+                && Objects.equals(getStatusLabel(), other.getStatusLabel())
+                && Objects.equals(difficulty, other.difficulty)
+                && Objects.equals(submissionId, other.submissionId)
+                && Objects.equals(contentSha, other.contentSha);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(problemName, getLanguage(), submissionId, contentSha);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSubmission{" +
+                "problemName='" + problemName + '\'' +
+                ", language='" + getLanguage() + '\'' +
+                ", submissionId='" + submissionId + '\'' +
+                ", status='" + getStatusLabel() + '\'' +
+                ", codeLength=" + codeLength +
+                ", deflated=" + deflated +
+                ", contentSha='" + contentSha + '\'' +
+                '}';
+    }
+
+    // One shared String per difficulty instead of a copy per parsed JSON response
+    private static String canonicalDifficulty(String difficulty) {
+        if (difficulty == null) {
+            return null;
+        }
+        switch (difficulty) {
+            case "Easy":
+                return "Easy";
+            case "Medium":
+                return "Medium";
+            case "Hard":
+                return "Hard";
+            default:
+                return difficulty;
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[Math.min(input.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int read = inflater.inflate(output, offset, length - offset);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != length) {
+                throw new IllegalStateException("Deflated code is truncated: " + offset + " of " + length + " bytes");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Deflated code is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        // Compact strings: one byte per char for Latin-1 text, two otherwise
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        return STRING_SHALLOW + align(ARRAY_HEADER + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // The names LeetCodeMonitorService.mapLanguageName produces
+    public enum Language {
+        JAVA("java"),
+        PYTHON("python"),
+        JAVASCRIPT("javascript"),
+        TYPESCRIPT("typescript"),
+        CPP("cpp"),
+        C("c"),
+        CSHARP("csharp"),
+        GOLANG("golang"),
+        RUST("rust"),
+        RUBY("ruby"),
+        PHP("php"),
+        SWIFT("swift"),
+        KOTLIN("kotlin"),
+        SCALA("scala"),
+        DART("dart"),
+        ELIXIR("elixir"),
+        ERLANG("erlang"),
+        RACKET("racket"),
+        BASH("bash"),
+        PANDAS("pandas"),
+        MYSQL("mysql"),
+        MSSQL("mssql"),
+        ORACLESQL("oraclesql"),
+        POSTGRESQL("postgresql");
+
+        private final String id;
+
+        Language(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public static Language fromId(String id) {
+            if (id == null) {
+                return null;
+            }
+            for (Language language : values()) {
+                if (language.id.equals(id)) {
+                    return language;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Status {
+        PENDING("Pending"),
+        ACCEPTED("Accepted"),
+        UNKNOWN("Unknown");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Status fromLabel(String label) {
+            if (label == null) {
+                return null;
+            }
+            for (Status status : values()) {
+                if (status.label.equals(label)) {
+                    return status;
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+}
@@ -6,6 +6,7 @@ public class Submission {
     private String code;
     private String submissionId;
     private String status;
+    private String difficulty;
     private long timestamp;
     
     public Submission() {
@@ -59,6 +60,14 @@ public class Submission {
         this.status = status;
     }
     
+    public String getDifficulty() {
+        return difficulty;
+    }
+    
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+    
     public long getTimestamp() {
         return timestamp;
     }
@@ -74,6 +83,7 @@ public class Submission {
                 ", language='" + language + '\'' +
                 ", submissionId='" + submissionId + '\'' +
                 ", status='" + status + '\'' +
+                ", difficulty='" + difficulty + '\'' +
                 ", timestamp=" + timestamp +
                 '}';
     }
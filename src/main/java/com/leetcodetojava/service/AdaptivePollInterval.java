@@ -0,0 +1,39 @@
+package com.leetcodetojava.service;
+
+// Picks the delay before the next monitor tick from what the page was doing on this one:
+// fast while a verdict is expected or the user is typing, the configured interval while a
+// problem is open, and exponential back-off up to the maximum when nothing is happening
+public class AdaptivePollInterval {
+    public enum PageState {
+        SUBMITTING,
+        EDITING,
+        VIEWING,
+        IDLE
+    }
+
+    private final long minMillis;
+    private final long baseMillis;
+    private final long maxMillis;
+    private long idleMillis;
+
+    public AdaptivePollInterval(long minMillis, long baseMillis, long maxMillis) {
+        this.minMillis = Math.max(100, minMillis);
+        this.maxMillis = Math.max(this.minMillis, maxMillis);
+        this.baseMillis = Math.min(this.maxMillis, Math.max(this.minMillis, baseMillis));
+    }
+
+    public synchronized long next(PageState state) {
+        switch (state) {
+            case SUBMITTING:
+            case EDITING:
+                idleMillis = 0;
+                return minMillis;
+            case VIEWING:
+                idleMillis = 0;
+                return baseMillis;
+            default:
+                idleMillis = idleMillis == 0 ? baseMillis : Math.min(maxMillis, idleMillis * 2);
+                return idleMillis;
+        }
+    }
+}
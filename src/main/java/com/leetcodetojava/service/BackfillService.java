@@ -0,0 +1,198 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Imports the user's whole accepted history: pages through the submission list, keeps the newest
+// accepted submission per problem and language, and fetches their code with bounded parallelism
+public class BackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(BackfillService.class);
+    private static final int MAX_PAGE_ATTEMPTS = 3;
+
+    private final LeetCodeGraphQLClient client;
+    private final UploadQueue uploadQueue;
+    private final ConfigurationManager configManager;
+
+    public BackfillService(LeetCodeGraphQLClient client, UploadQueue uploadQueue, ConfigurationManager configManager) {
+        this.client = client;
+        this.uploadQueue = uploadQueue;
+        this.configManager = configManager;
+    }
+
+    public BackfillReport backfill() throws Exception {
+        BackfillReport report = new BackfillReport();
+        int concurrency = Math.max(1, configManager.getBackfillConcurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService fetchers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "backfill-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Submission> completions = new ExecutorCompletionService<>(fetchers);
+
+        try {
+            // The history is newest first, so the first accepted entry per problem and language is the one to keep
+            Set<String> seen = new HashSet<>();
+            int submitted = 0;
+            int offset = 0;
+            String lastKey = null;
+            boolean hasNext = true;
+
+            while (hasNext) {
+                LeetCodeGraphQLClient.HistoryPage page = fetchPage(offset, lastKey);
+                report.listed += page.getListed();
+                for (LeetCodeGraphQLClient.RecentSubmission entry : page.getSubmissions()) {
+                    report.accepted++;
+                    String language = LeetCodeMonitorService.mapLanguageName(entry.getLanguage());
+                    if (language == null) {
+                        logger.warn("Skipping {} submission {} for {}: unsupported language",
+                                entry.getLanguage(), entry.getId(), entry.getTitleSlug());
+                        report.unsupported++;
+                        continue;
+                    }
+                    String key = entry.getTitleSlug() + "/" + language;
+                    if (!seen.add(key)) {
+                        continue;
+                    }
+                    completions.submit(() -> fetchSubmission(entry));
+                    submitted++;
+                }
+
+                // Hand finished fetches to the queue while paging continues, keeping at most
+                // a few pages of fetched code in memory
+                while (submitted - report.fetched - report.fetchFailed > concurrency * 2) {
+                    drain(completions.take(), report);
+                }
+
+                hasNext = page.hasNext() && page.getListed() > 0;
+                offset += page.getListed();
+                lastKey = page.getLastKey();
+                if (hasNext) {
+                    Thread.sleep(configManager.getBackfillPageDelayMillis());
+                }
+                logger.info("Backfill listed {} submissions, {} unique accepted solutions so far", report.listed, seen.size());
+            }
+
+            while (report.fetched + report.fetchFailed < submitted) {
+                drain(completions.take(), report);
+            }
+            report.unique = seen.size();
+        } finally {
+            fetchers.shutdownNow();
+        }
+
+        logger.info("Backfill fetched {} solutions ({} failed), {} queued for upload",
+                report.fetched, report.fetchFailed, report.queued);
+        return report;
+    }
+
+    private LeetCodeGraphQLClient.HistoryPage fetchPage(int offset, String lastKey) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return client.fetchSubmissionHistory(offset, configManager.getBackfillPageSize(), lastKey);
+            } catch (Exception e) {
+                if (attempt >= MAX_PAGE_ATTEMPTS) {
+                    throw e;
+                }
+                // LeetCode throttles this listing quickly; back off before asking again
+                long delay = configManager.getBackfillPageDelayMillis() * (4L << attempt);
+                logger.warn("Failed to list submissions at offset {}, retrying in {} ms", offset, delay, e);
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private Submission fetchSubmission(LeetCodeGraphQLClient.RecentSubmission entry) throws Exception {
+        LeetCodeGraphQLClient.SubmissionDetail detail = client.fetchSubmissionDetail(entry.getId());
+        if (detail == null || !detail.isAccepted()) {
+            return null;
+        }
+
+        // The listing's language already passed the check; the detail only refines it
+        String language = LeetCodeMonitorService.mapLanguageName(detail.getLanguage());
+        Submission submission = new Submission();
+        submission.setSubmissionId(detail.getSubmissionId());
+        submission.setProblemName(entry.getTitleSlug());
+        submission.setLanguage(language != null ? language : LeetCodeMonitorService.mapLanguageName(entry.getLanguage()));
+        submission.setDifficulty(detail.getDifficulty());
+        submission.setCode(LeetCodeMonitorService.cleanExtractedCode(detail.getCode()));
+        submission.setStatus("Accepted");
+        return submission;
+    }
+
+    // Blocks on a full upload queue, so fetching never runs far ahead of GitHub
+    private void drain(Future<Submission> completed, BackfillReport report) throws InterruptedException {
+        Submission submission;
+        try {
+            submission = completed.get();
+        } catch (Exception e) {
+            logger.warn("Failed to fetch submission details", e);
+            report.fetchFailed++;
+            return;
+        }
+
+        if (submission == null) {
+            report.fetchFailed++;
+            return;
+        }
+
+        report.fetched++;
+        while (!uploadQueue.enqueue(submission, 5, TimeUnit.MINUTES)) {
+            if (!uploadQueue.isRunning()) {
+                throw new IllegalStateException("Upload queue stopped during backfill");
+            }
+            logger.info("Upload queue still full, waiting to queue {}", submission.getProblemName());
+        }
+        report.queued++;
+    }
+
+    public static class BackfillReport {
+        private int listed;
+        private int accepted;
+        private int unique;
+        private int fetched;
+        private int fetchFailed;
+        private int queued;
+        private int unsupported;
+
+        public int getListed() {
+            return listed;
+        }
+
+        public int getAccepted() {
+            return accepted;
+        }
+
+        public int getUnique() {
+            return unique;
+        }
+
+        public int getFetched() {
+            return fetched;
+        }
+
+        public int getFetchFailed() {
+            return fetchFailed;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getUnsupported() {
+            return unsupported;
+        }
+    }
+}
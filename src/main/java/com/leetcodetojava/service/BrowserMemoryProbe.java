@@ -0,0 +1,95 @@
+package com.leetcodetojava.service;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+// Memory used by the Chrome started for one WebDriver: its browser process plus every renderer,
+// GPU and utility process below it. Linux only (reads /proc); elsewhere the probe reports -1.
+public final class BrowserMemoryProbe {
+
+    private BrowserMemoryProbe() {
+    }
+
+    public static long measureBytes(WebDriver driver) {
+        if (!Files.isDirectory(Path.of("/proc/self"))) {
+            return -1;
+        }
+
+        String userDataDir = userDataDir(driver);
+        if (userDataDir == null) {
+            return -1;
+        }
+
+        // The browser process is the one launched with this profile and no --type= of its own;
+        // ChromeDriver runs as our child, so it is among our descendants
+        Optional<ProcessHandle> browser = ProcessHandle.current().descendants()
+                .filter(process -> {
+                    String commandLine = commandLine(process.pid());
+                    return commandLine.contains("--user-data-dir=" + userDataDir) && !commandLine.contains("--type=");
+                })
+                .findFirst();
+        if (browser.isEmpty()) {
+            return -1;
+        }
+
+        long total = memoryOf(browser.get().pid());
+        for (ProcessHandle child : (Iterable<ProcessHandle>) browser.get().descendants()::iterator) {
+            total += memoryOf(child.pid());
+        }
+        return total;
+    }
+
+    // ChromeDriver reports the profile directory it used, even for its temporary ones
+    private static String userDataDir(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities)) {
+            return null;
+        }
+        Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+        Object chrome = capabilities.getCapability("chrome");
+        if (chrome instanceof Map) {
+            Object directory = ((Map<?, ?>) chrome).get("userDataDir");
+            return directory != null ? directory.toString() : null;
+        }
+        return null;
+    }
+
+    private static String commandLine(long pid) {
+        try {
+            byte[] raw = Files.readAllBytes(Path.of("/proc", Long.toString(pid), "cmdline"));
+            return new String(raw, StandardCharsets.UTF_8).replace('\0', ' ');
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    // Proportional set size where the kernel offers it, so pages shared between Chrome's
+    // processes are not counted once per process; resident set size otherwise
+    private static long memoryOf(long pid) {
+        long pss = readKilobytes(Path.of("/proc", Long.toString(pid), "smaps_rollup"), "Pss:");
+        if (pss >= 0) {
+            return pss * 1024;
+        }
+        long rss = readKilobytes(Path.of("/proc", Long.toString(pid), "status"), "VmRSS:");
+        return rss >= 0 ? rss * 1024 : 0;
+    }
+
+    private static long readKilobytes(Path file, String field) {
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (Exception e) {
+            // Process exited or the file is not readable
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,238 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetcodetojava.model.Submission;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Watches the browser's own traffic through the DevTools Network domain and reports an accepted
+// submission as soon as LeetCode's verdict arrives, with the code taken from the submit request.
+// Uses raw CDP method names so it does not depend on a Chrome-version-specific devtools artifact.
+public class CdpSubmissionListener {
+    private static final Logger logger = LoggerFactory.getLogger(CdpSubmissionListener.class);
+    private static final Pattern SUBMIT_URL = Pattern.compile("/problems/([^/?]+)/submit/?(\\?|$)");
+    private static final Pattern CHECK_URL = Pattern.compile("/submissions/detail/(\\d+)/check/?(\\?|$)");
+    private static final int ACCEPTED_STATUS_CODE = 10;
+    private static final int MAX_TRACKED = 64;
+
+    private final Consumer<Submission> onAccepted;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> submitRequests; // CDP request ID -> problem slug
+    private final Map<String, String> checkRequests; // CDP request ID -> submission ID
+    private final Map<String, PendingSubmit> submitsById; // submission ID -> submitted code
+    private ExecutorService bodyFetcher;
+    private DevTools devTools;
+
+    public CdpSubmissionListener(Consumer<Submission> onAccepted) {
+        this.onAccepted = onAccepted;
+        this.objectMapper = new ObjectMapper();
+        this.submitRequests = boundedMap();
+        this.checkRequests = boundedMap();
+        this.submitsById = boundedMap();
+    }
+
+    public synchronized void attach(WebDriver driver) {
+        detach();
+
+        devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        // Response bodies are fetched with further CDP calls, which must not block the event thread.
+        // A single thread also keeps each submit ahead of its checks.
+        bodyFetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cdp-body-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        devTools.addListener(new Event<Map<String, Object>>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE)),
+                this::onRequestWillBeSent);
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                this::onLoadingFinished);
+        devTools.send(new Command<>("Network.enable", Map.of()));
+
+        logger.info("Listening for LeetCode submissions through Chrome DevTools");
+    }
+
+    public synchronized boolean isAttached() {
+        return devTools != null;
+    }
+
+    public synchronized void detach() {
+        if (devTools == null) {
+            return;
+        }
+
+        try {
+            devTools.clearListeners();
+            devTools.disconnectSession();
+        } catch (Exception e) {
+            logger.debug("Error detaching from DevTools", e);
+        }
+        bodyFetcher.shutdownNow();
+        devTools = null;
+        bodyFetcher = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onRequestWillBeSent(Map<String, Object> params) {
+        Map<String, Object> request = (Map<String, Object>) params.get("request");
+        if (request == null) {
+            return;
+        }
+
+        String requestId = (String) params.get("requestId");
+        String url = String.valueOf(request.get("url"));
+
+        Matcher submit = SUBMIT_URL.matcher(url);
+        if ("POST".equals(request.get("method")) && submit.find()) {
+            submitRequests.put(requestId, submit.group(1));
+            return;
+        }
+
+        Matcher check = CHECK_URL.matcher(url);
+        if (check.find()) {
+            checkRequests.put(requestId, check.group(1));
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        String requestId = (String) params.get("requestId");
+
+        String slug = submitRequests.remove(requestId);
+        if (slug != null) {
+            fetchBody(() -> recordSubmit(requestId, slug));
+            return;
+        }
+
+        String submissionId = checkRequests.remove(requestId);
+        if (submissionId != null) {
+            fetchBody(() -> handleCheck(requestId, submissionId));
+        }
+    }
+
+    private synchronized void fetchBody(Runnable task) {
+        if (bodyFetcher == null) {
+            return;
+        }
+        bodyFetcher.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.warn("Failed to read intercepted LeetCode response", e);
+            }
+        });
+    }
+
+    // The submit request carries the code and language; its response carries the submission ID
+    private void recordSubmit(String requestId, String slug) {
+        Map<String, Object> postData = send("Network.getRequestPostData", requestId);
+        JsonNode request = readJson((String) postData.get("postData"));
+        JsonNode response = readJson(responseBody(requestId));
+
+        String submissionId = response.path("submission_id").asText("");
+        if (submissionId.isEmpty()) {
+            logger.debug("Submit of {} returned no submission ID", slug);
+            return;
+        }
+
+        PendingSubmit pending = new PendingSubmit();
+        pending.slug = slug;
+        pending.language = request.path("lang").asText(null);
+        pending.code = request.path("typed_code").asText("");
+        submitsById.put(submissionId, pending);
+        logger.debug("Captured submit of {} as submission {}", slug, submissionId);
+    }
+
+    // LeetCode polls this endpoint until the judge finishes; only the final SUCCESS state is a verdict
+    private void handleCheck(String requestId, String submissionId) {
+        JsonNode verdict = readJson(responseBody(requestId));
+        if (!"SUCCESS".equals(verdict.path("state").asText())) {
+            return;
+        }
+
+        PendingSubmit pending = submitsById.remove(submissionId);
+        if (pending == null) {
+            logger.debug("Verdict for submission {} without a captured submit, ignoring", submissionId);
+            return;
+        }
+
+        boolean accepted = verdict.path("status_code").asInt() == ACCEPTED_STATUS_CODE
+                || "Accepted".equals(verdict.path("status_msg").asText());
+        if (!accepted) {
+            logger.info("Submission {} for {} was not accepted: {}", submissionId, pending.slug, verdict.path("status_msg").asText());
+            return;
+        }
+
+        String rawLanguage = pending.language != null ? pending.language : verdict.path("lang").asText(null);
+        String language = LeetCodeMonitorService.mapLanguageName(rawLanguage);
+        if (language == null) {
+            logger.warn("Skipping submission {} for {}: unsupported language {}", submissionId, pending.slug, rawLanguage);
+            return;
+        }
+
+        Submission submission = new Submission();
+        submission.setSubmissionId(submissionId);
+        submission.setProblemName(pending.slug);
+        submission.setLanguage(language);
+        submission.setCode(LeetCodeMonitorService.cleanExtractedCode(pending.code));
+        submission.setStatus("Accepted");
+
+        logger.info("Captured accepted submission {} for: {}", submissionId, pending.slug);
+        onAccepted.accept(submission);
+    }
+
+    private String responseBody(String requestId) {
+        Map<String, Object> body = send("Network.getResponseBody", requestId);
+        return (String) body.get("body");
+    }
+
+    private Map<String, Object> send(String method, String requestId) {
+        DevTools current;
+        synchronized (this) {
+            current = devTools;
+        }
+        if (current == null) {
+            throw new IllegalStateException("DevTools session closed");
+        }
+        return current.send(new Command<Map<String, Object>>(method, Map.of("requestId", requestId), Json.MAP_TYPE));
+    }
+
+    private JsonNode readJson(String body) {
+        try {
+            return body != null ? objectMapper.readTree(body) : objectMapper.missingNode();
+        } catch (Exception e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private static <V> Map<String, V> boundedMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > MAX_TRACKED;
+            }
+        });
+    }
+
+    private static class PendingSubmit {
+        private String slug;
+        private String language;
+        private String code;
+    }
+}
@@ -0,0 +1,286 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.manager.SeleniumManager;
+import org.openqa.selenium.manager.SeleniumManagerOutput;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Launches the monitored Chrome and, when browser.standby.enabled is set, keeps a second one
+// warmed up on LeetCode so a dead session is replaced without waiting for a browser launch.
+// Chrome locks its user data directory, so the two browsers alternate between the profile
+// directory and a "-standby" sibling; cookies are copied across to keep both logged in.
+public class ChromeSessionManager {
+    private static final Logger logger = LoggerFactory.getLogger(ChromeSessionManager.class);
+    private static final String DRIVER_PATH_FILE = "chromedriver-path";
+
+    // Resolved once per process; Selenium Manager otherwise runs again on every launch
+    private static volatile File cachedDriverExecutable;
+
+    private final ConfigurationManager configManager;
+    private final boolean standbyEnabled;
+    private final ExecutorService standbyLauncher;
+    private final AtomicLong webDriverCalls;
+    private final MetricsRegistry.Counter webDriverCallCounter;
+    private Future<WebDriver> standby;
+    private int activeSlot;
+
+    public ChromeSessionManager(ConfigurationManager configManager) {
+        this.configManager = configManager;
+        this.standbyEnabled = configManager.isStandbyBrowserEnabled();
+        this.standbyLauncher = standbyEnabled ? Executors.newSingleThreadExecutor(runnable -> {
+            String account = configManager.getAccountName();
+            Thread thread = new Thread(runnable, account != null ? "chrome-standby-" + account : "chrome-standby");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.webDriverCalls = new AtomicLong();
+        this.webDriverCallCounter = MetricsRegistry.global().counter("leetcode_webdriver_calls_total",
+                "WebDriver commands sent to ChromeDriver", "account", configManager.getAccountLabel());
+    }
+
+    // Commands sent to ChromeDriver by every browser this manager has launched, standby included
+    public long getWebDriverCalls() {
+        return webDriverCalls.get();
+    }
+
+    // A fresh browser on the active profile slot, without touching the standby
+    public synchronized WebDriver launch() {
+        return launch(activeSlot);
+    }
+
+    // Replacement for a dead or missing session: the standby if there is one, otherwise a cold
+    // start. Either way a new standby is started for next time.
+    public synchronized WebDriver acquire() {
+        WebDriver driver = takeStandby();
+        if (driver != null) {
+            activeSlot = 1 - activeSlot;
+            logger.info("Switched to the standby browser");
+        } else {
+            driver = launch(activeSlot);
+        }
+        prewarmStandby();
+        return driver;
+    }
+
+    // Copies the active session's login into the standby; queued behind its launch if still starting
+    public synchronized void syncCookies(Set<Cookie> cookies) {
+        if (standby == null) {
+            return;
+        }
+        Future<WebDriver> target = standby;
+        standbyLauncher.execute(() -> {
+            try {
+                WebDriver driver = target.get();
+                int copied = 0;
+                for (Cookie cookie : cookies) {
+                    try {
+                        driver.manage().addCookie(cookie);
+                        copied++;
+                    } catch (Exception e) {
+                        // Cookie for a domain other than the one the standby has open
+                    }
+                }
+                logger.debug("Copied {} cookies to the standby browser", copied);
+            } catch (Exception e) {
+                logger.debug("Could not copy cookies to the standby browser", e);
+            }
+        });
+    }
+
+    public static void quitQuietly(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting browser", e);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (standby != null) {
+            discardStandby(standby);
+            standby = null;
+        }
+        if (standbyLauncher != null) {
+            standbyLauncher.shutdown();
+            try {
+                standbyLauncher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void prewarmStandby() {
+        if (!standbyEnabled || standby != null) {
+            return;
+        }
+        int slot = 1 - activeSlot;
+        standby = standbyLauncher.submit(() -> {
+            WebDriver driver = launch(slot);
+            driver.get(configManager.getLeetCodeBaseUrl());
+            logger.info("Standby browser ready");
+            return driver;
+        });
+    }
+
+    // Waits for a standby that is still launching: it is further along than a cold start would be
+    private WebDriver takeStandby() {
+        if (standby == null) {
+            return null;
+        }
+        Future<WebDriver> pending = standby;
+        standby = null;
+        try {
+            WebDriver driver = pending.get(60, TimeUnit.SECONDS);
+            driver.getCurrentUrl();
+            return driver;
+        } catch (Exception e) {
+            logger.warn("Standby browser is not usable, starting a new one", e);
+            discardStandby(pending);
+            return null;
+        }
+    }
+
+    // Queued behind the launch, so a browser that is still starting is quit once it is up
+    private void discardStandby(Future<WebDriver> pending) {
+        standbyLauncher.execute(() -> quitQuietly(getNow(pending)));
+    }
+
+    private WebDriver launch(int slot) {
+        ChromeOptions options = buildOptions(profileDirectory(slot));
+        WebDriver driver;
+        try {
+            driver = new ChromeDriver(driverService(options, false), options, countingClientConfig());
+        } catch (SessionNotCreatedException e) {
+            // Usually Chrome updated past the cached driver; look it up again once
+            logger.warn("Could not start Chrome with the cached driver, resolving it again");
+            driver = new ChromeDriver(driverService(options, true), options, countingClientConfig());
+        }
+        if (configManager.isLeanBrowserMode()) {
+            LeanBrowserProfile.blockRequests((ChromeDriver) driver, configManager.getExtraBlockedUrls());
+        }
+        logger.info("WebDriver initialized successfully");
+        return driver;
+    }
+
+    // Every WebDriver command is one HTTP request to ChromeDriver, so counting requests counts calls
+    private ClientConfig countingClientConfig() {
+        return ClientConfig.defaultConfig().withFilter(next -> request -> {
+            webDriverCalls.incrementAndGet();
+            webDriverCallCounter.increment();
+            return next.execute(request);
+        });
+    }
+
+    private ChromeOptions buildOptions(Path profileDirectory) {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--no-sandbox", "--disable-dev-shm-usage", "--disable-gpu", "--window-size=1920,1080");
+
+        if (profileDirectory != null) {
+            // Keeps each user's LeetCode login apart and lets it survive restarts
+            options.addArguments("--user-data-dir=" + profileDirectory.toAbsolutePath());
+        }
+
+        if (configManager.isHeadlessMode()) {
+            options.addArguments("--headless");
+        } else {
+            logger.info("Running in visible mode - Chrome window should be visible");
+        }
+
+        if (configManager.isLeanBrowserMode()) {
+            LeanBrowserProfile.apply(options);
+        }
+        return options;
+    }
+
+    private Path profileDirectory(int slot) {
+        Path profile = configManager.getBrowserProfileDirectory();
+        if (profile == null || slot == 0) {
+            return profile;
+        }
+        return profile.resolveSibling(profile.getFileName() + "-standby");
+    }
+
+    private ChromeDriverService driverService(ChromeOptions options, boolean refresh) {
+        return new ChromeDriverService.Builder()
+                .usingDriverExecutable(driverExecutable(options, refresh))
+                .usingAnyFreePort()
+                .build();
+    }
+
+    // webdriver.chrome.driver wins; otherwise the path found last time, then Selenium Manager
+    private File driverExecutable(ChromeOptions options, boolean refresh) {
+        synchronized (ChromeSessionManager.class) {
+            return resolveDriverExecutable(options, refresh);
+        }
+    }
+
+    private File resolveDriverExecutable(ChromeOptions options, boolean refresh) {
+        String property = System.getProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY);
+        if (property != null && !property.isEmpty()) {
+            return new File(property);
+        }
+
+        Path cacheFile = configManager.getStateDirectory().resolve(DRIVER_PATH_FILE);
+        if (!refresh) {
+            File cached = cachedDriverExecutable;
+            if (cached != null && cached.canExecute()) {
+                return cached;
+            }
+            try {
+                if (Files.exists(cacheFile)) {
+                    File stored = new File(Files.readString(cacheFile, StandardCharsets.UTF_8).trim());
+                    if (stored.canExecute()) {
+                        cachedDriverExecutable = stored;
+                        return stored;
+                    }
+                }
+            } catch (Exception e) {
+                logger.debug("Could not read cached driver path", e);
+            }
+        }
+
+        SeleniumManagerOutput.Result result = SeleniumManager.getInstance().getDriverPath(options, false);
+        File resolved = new File(result.getDriverPath());
+        cachedDriverExecutable = resolved;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Files.writeString(cacheFile, resolved.getAbsolutePath(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            logger.debug("Could not cache driver path", e);
+        }
+        logger.info("Using ChromeDriver at {}", resolved);
+        return resolved;
+    }
+
+    private static WebDriver getNow(Future<WebDriver> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+
+// Contents API PUT body ({"message", "content", "sha"}) written straight to the sink,
+// base64-encoding the file bytes on the fly instead of building intermediate strings
+public class ContentsRequestBody extends RequestBody {
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final JsonFactory jsonFactory;
+    private final String message;
+    private final byte[] content;
+    private final String sha;
+
+    public ContentsRequestBody(JsonFactory jsonFactory, String message, byte[] content, String sha) {
+        this.jsonFactory = jsonFactory;
+        this.message = message;
+        this.content = content;
+        this.sha = sha;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(sink.outputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeStringField("message", message);
+        generator.writeFieldName("content");
+        generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, content, 0, content.length);
+        if (sha != null) {
+            generator.writeStringField("sha", sha);
+        }
+        generator.writeEndObject();
+        // Releases the generator's recycled buffers; the sink itself stays open for OkHttp
+        generator.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Local record of the blob SHA (and contents ETag) of every file we have seen in the target repo
+public class FileShaIndex {
+    private static final Logger logger = LoggerFactory.getLogger(FileShaIndex.class);
+
+    private final Path indexFile;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> entries;
+    private volatile boolean complete; // true after a full listing: a missing path does not exist remotely
+
+    public FileShaIndex(Path indexFile) {
+        this.indexFile = indexFile;
+        this.objectMapper = new ObjectMapper();
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    public void load() {
+        if (!Files.exists(indexFile)) {
+            logger.debug("No SHA index found at {}", indexFile);
+            return;
+        }
+
+        try {
+            Map<String, Entry> stored = objectMapper.readValue(indexFile.toFile(), new TypeReference<Map<String, Entry>>() {});
+            entries.putAll(stored);
+            logger.info("Loaded {} file SHAs from {}", entries.size(), indexFile);
+        } catch (Exception e) {
+            logger.warn("Failed to read SHA index {}, starting empty", indexFile, e);
+        }
+    }
+
+    public synchronized void save() {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), entries);
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Failed to save SHA index {}", indexFile, e);
+        }
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    public String getSha(String path) {
+        Entry entry = entries.get(path);
+        return entry != null ? entry.sha : null;
+    }
+
+    public void put(String path, String sha, String etag) {
+        entries.put(path, new Entry(sha, etag));
+    }
+
+    // Replaces the whole index with an authoritative listing, keeping ETags whose SHA still matches
+    public void replaceAll(Map<String, String> shasByPath) {
+        entries.keySet().retainAll(shasByPath.keySet());
+        for (Map.Entry<String, String> listed : shasByPath.entrySet()) {
+            Entry known = entries.get(listed.getKey());
+            if (known == null || !listed.getValue().equals(known.sha)) {
+                entries.put(listed.getKey(), new Entry(listed.getValue(), null));
+            }
+        }
+        complete = true;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void remove(String path) {
+        entries.remove(path);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static class Entry {
+        public String sha;
+        public String etag;
+
+        public Entry() {
+        }
+
+        public Entry(String sha, String etag) {
+            this.sha = sha;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.leetcodetojava.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Computes the same object id git assigns to a blob: sha1("blob <len>\0" + bytes)
+public final class GitBlobHasher {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private GitBlobHasher() {
+    }
+
+    public static String blobSha(String content) {
+        return blobSha(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String blobSha(byte[] content) {
+        MessageDigest digest = newSha1();
+        digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+        digest.update(content);
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newSha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,242 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+// Single gate for every GitHub API call. Tracks the budget reported in the rate-limit headers,
+// holds work back before the limit is hit, honours Retry-After lockouts and lets uploads go first.
+public class GitHubRequestScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(GitHubRequestScheduler.class);
+    private static final int MAX_RATE_LIMIT_RETRIES = 3;
+    private static final long ERROR_BODY_PEEK_BYTES = 4096;
+
+    public enum Priority {
+        UPLOAD,
+        READ
+    }
+
+    private final ConfigurationManager configManager;
+    private final MetricsRegistry metrics;
+    private final String account;
+    private final MetricsRegistry.Counter rateLimitRetries;
+    private final PriorityQueue<Ticket> waiting;
+    private long nextTicket;
+    private int inFlight;
+    private int remaining = -1;
+    private long resetAtMillis;
+    private long lockedUntilMillis;
+    private long lastWriteAtMillis;
+
+    public GitHubRequestScheduler(ConfigurationManager configManager) {
+        this.configManager = configManager;
+        this.waiting = new PriorityQueue<>(Comparator
+                .comparing((Ticket ticket) -> ticket.priority)
+                .thenComparingLong(ticket -> ticket.sequence));
+        this.metrics = MetricsRegistry.global();
+        this.account = configManager.getAccountLabel();
+        this.rateLimitRetries = metrics.counter("leetcode_github_rate_limit_retries_total",
+                "GitHub requests repeated after a rate-limit response", "account", account);
+        metrics.gauge("leetcode_github_rate_limit_remaining", "GitHub API requests left in the current rate-limit window (-1 until known)",
+                this::getRemainingBudget, "account", account);
+    }
+
+    public Response execute(Call call, Priority priority) throws IOException {
+        boolean write = !"GET".equals(call.request().method());
+        Call current = call;
+
+        for (int attempt = 0; ; attempt++) {
+            acquire(priority, write);
+            Response response = null;
+            boolean rateLimited = false;
+            long startNanos = System.nanoTime();
+            try {
+                response = current.execute();
+                rateLimited = isRateLimited(response);
+            } finally {
+                release(response, rateLimited);
+                recordLatency(call.request(), response, startNanos);
+            }
+
+            if (!rateLimited || attempt >= MAX_RATE_LIMIT_RETRIES) {
+                return response;
+            }
+
+            logger.warn("GitHub rate limit hit ({} {}), waiting {} ms before retrying",
+                    response.code(), call.request().url().encodedPath(), Math.max(0, lockedUntilMillis - System.currentTimeMillis()));
+            response.close();
+            rateLimitRetries.increment();
+            current = current.clone();
+        }
+    }
+
+    // Excludes time spent waiting for the rate limit; that is the scheduler's doing, not GitHub's
+    private void recordLatency(Request request, Response response, long startNanos) {
+        metrics.histogram("leetcode_github_request_seconds", "GitHub API request latency",
+                MetricsRegistry.LATENCY_BUCKETS,
+                "account", account,
+                "method", request.method(),
+                "endpoint", endpointOf(request.url().encodedPath()),
+                "status", response != null ? Integer.toString(response.code()) : "error")
+                .observeSince(startNanos);
+    }
+
+    // /repos/{owner}/{repo}/contents/some/file.java -> /repos/contents; keeps the label set small
+    static String endpointOf(String path) {
+        String[] segments = path.split("/");
+        if (segments.length > 4 && "repos".equals(segments[1])) {
+            if ("git".equals(segments[4]) && segments.length > 5) {
+                return "/repos/git/" + segments[5];
+            }
+            return "/repos/" + segments[4];
+        }
+        if (segments.length > 3 && "repos".equals(segments[1])) {
+            return "/repos";
+        }
+        return segments.length > 1 ? "/" + segments[1] : "/";
+    }
+
+    // -1 until the first response has reported a budget
+    public synchronized int getRemainingBudget() {
+        return remaining;
+    }
+
+    public synchronized long getResetAtMillis() {
+        return resetAtMillis;
+    }
+
+    private synchronized void acquire(Priority priority, boolean write) throws IOException {
+        Ticket ticket = new Ticket(priority, nextTicket++);
+        waiting.add(ticket);
+        try {
+            while (true) {
+                long delay = delayFor(ticket, write);
+                if (delay == 0) {
+                    break;
+                }
+                wait(Math.min(delay, 1000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit");
+        } finally {
+            waiting.remove(ticket);
+            notifyAll();
+        }
+
+        inFlight++;
+        if (remaining > 0) {
+            remaining--;
+        }
+        if (write) {
+            lastWriteAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    private long delayFor(Ticket ticket, boolean write) {
+        long now = System.currentTimeMillis();
+
+        if (waiting.peek() != ticket || inFlight >= configManager.getGitHubMaxConcurrentRequests()) {
+            return 1000;
+        }
+        if (now < lockedUntilMillis) {
+            return lockedUntilMillis - now;
+        }
+
+        // Reads stop while a reserve is left so uploads can still get through
+        int reserve = ticket.priority == Priority.READ ? configManager.getGitHubReadReserve() : 0;
+        if (remaining >= 0 && remaining <= reserve && now < resetAtMillis) {
+            return resetAtMillis - now;
+        }
+
+        // Spacing content-creating requests avoids GitHub's secondary rate limit
+        if (write) {
+            long nextWriteAt = lastWriteAtMillis + configManager.getGitHubWriteIntervalMillis();
+            if (now < nextWriteAt) {
+                return nextWriteAt - now;
+            }
+        }
+        return 0;
+    }
+
+    // Time before which no request is let through; 0 until GitHub has asked for a pause
+    synchronized long getLockedUntilMillis() {
+        return lockedUntilMillis;
+    }
+
+    private synchronized void release(Response response, boolean rateLimited) {
+        inFlight--;
+        if (response != null) {
+            updateFromHeaders(response, rateLimited);
+        }
+        notifyAll();
+    }
+
+    private void updateFromHeaders(Response response, boolean rateLimited) {
+        String remainingHeader = response.header("X-RateLimit-Remaining");
+        String resetHeader = response.header("X-RateLimit-Reset");
+        String retryAfterHeader = response.header("Retry-After");
+        long now = System.currentTimeMillis();
+
+        try {
+            if (remainingHeader != null) {
+                remaining = Integer.parseInt(remainingHeader.trim());
+            }
+            if (resetHeader != null) {
+                resetAtMillis = Long.parseLong(resetHeader.trim()) * 1000L;
+            }
+            if (retryAfterHeader != null) {
+                lockedUntilMillis = Math.max(lockedUntilMillis, now + Long.parseLong(retryAfterHeader.trim()) * 1000L);
+            } else if (rateLimited && remaining == 0 && resetAtMillis > now) {
+                lockedUntilMillis = Math.max(lockedUntilMillis, resetAtMillis);
+            } else if (rateLimited) {
+                // Secondary limit without guidance: GitHub asks clients to wait at least a minute
+                lockedUntilMillis = Math.max(lockedUntilMillis, now + 60_000L);
+            }
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring malformed rate-limit headers on {}", response.request().url());
+        }
+    }
+
+    // Secondary-limit 403s often carry neither header (remaining is still above 0); then only the
+    // message ("You have exceeded a secondary rate limit") or documentation_url tells them apart
+    // from a permissions 403
+    static boolean isRateLimited(Response response) {
+        if (response.code() == 429) {
+            return true;
+        }
+        if (response.code() != 403) {
+            return false;
+        }
+        if ("0".equals(response.header("X-RateLimit-Remaining")) || response.header("Retry-After") != null) {
+            return true;
+        }
+        try {
+            // Peeked, so the caller can still read the body
+            String body = response.peekBody(ERROR_BODY_PEEK_BYTES).string().toLowerCase(Locale.ROOT);
+            return body.contains("rate limit") || body.contains("rate-limit");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static class Ticket {
+        private final Priority priority;
+        private final long sequence;
+
+        private Ticket(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
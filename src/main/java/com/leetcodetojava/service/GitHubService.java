@@ -1,102 +1,182 @@
 package com.leetcodetojava.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.CompactSubmission;
 import com.leetcodetojava.model.Submission;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
-public class GitHubService {
+public class GitHubService implements SubmissionUploader {
     private static final Logger logger = LoggerFactory.getLogger(GitHubService.class);
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final CacheControl REVALIDATE = new CacheControl.Builder().noCache().build();
+    private static final int MAX_REF_UPDATE_ATTEMPTS = 3;
     
     private final ConfigurationManager configManager;
     private final ObjectMapper objectMapper;
-    private final OkHttpClient httpClient;
+    private OkHttpClient httpClient;
+    private FileShaIndex shaIndex;
+    private final GitHubRequestScheduler requestScheduler;
+    private SolutionIndex solutionIndex;
+    private final Object commitLock = new Object();
     
     public GitHubService(ConfigurationManager configManager) {
-        this.configManager = configManager;
-        this.objectMapper = new ObjectMapper();
-        this.httpClient = new OkHttpClient.Builder()
+        this(configManager, new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
+                .build());
+    }
+    
+    // Several services built from one client share its connection pool and dispatcher
+    public GitHubService(ConfigurationManager configManager, OkHttpClient sharedClient) {
+        this.configManager = configManager;
+        this.objectMapper = new ObjectMapper();
+        this.httpClient = sharedClient;
+        this.shaIndex = new FileShaIndex(Path.of(".leetcode-uploader", "sha-index.json"));
+        this.requestScheduler = new GitHubRequestScheduler(configManager);
+    }
+    
+    // Called once the configuration is loaded, so the state directory is known
+    public void initialize() {
+        Path stateDir = configManager.getStateDirectory();
+        
+        Cache cache = new Cache(stateDir.resolve("http-cache").toFile(), configManager.getHttpCacheSizeMb() * 1024L * 1024L);
+        this.httpClient = httpClient.newBuilder()
+                .cache(cache)
                 .build();
+        
+        this.shaIndex = new FileShaIndex(stateDir.resolve("sha-index.json"));
+        shaIndex.load();
     }
     
-    public boolean uploadSubmission(Submission submission) {
-        try {
-            String filePath = buildFilePath(submission);
-            String content = Base64.getEncoder().encodeToString(
-                    submission.getCode().getBytes(StandardCharsets.UTF_8)
-            );
-            
-            String existingSha = getFileSha(filePath);
-            String requestBody;
-            String commitMessage;
-            
-            if (existingSha != null) {
-                // Update existing file
-                UpdateFileRequest updateRequest = new UpdateFileRequest(
-                        "feat: update " + submission.getLanguage() + " solution for " + submission.getProblemName(),
-                        content,
-                        existingSha
-                );
-                requestBody = objectMapper.writeValueAsString(updateRequest);
-                commitMessage = "Updated " + submission.getLanguage() + " solution for " + submission.getProblemName();
+    // Seeds the index from the repository's manifest (one read) when there is no local copy yet
+    public void setSolutionIndex(SolutionIndex solutionIndex) {
+        this.solutionIndex = solutionIndex;
+        if (solutionIndex.load()) {
+            return;
+        }
+        
+        Request request = newRequest(repoUrl("contents/" + solutionIndex.getManifestPath()))
+                .header("Accept", "application/vnd.github.raw")
+                .get()
+                .build();
+        try (Response response = requestScheduler.execute(httpClient.newCall(request), GitHubRequestScheduler.Priority.READ)) {
+            if (response.isSuccessful() && response.body() != null) {
+                solutionIndex.seed(response.body().string());
             } else {
-                // Create new file
-                CreateFileRequest createRequest = new CreateFileRequest(
-                        "feat: add " + submission.getLanguage() + " solution for " + submission.getProblemName(),
-                        content
-                );
-                requestBody = objectMapper.writeValueAsString(createRequest);
-                commitMessage = "Added " + submission.getLanguage() + " solution for " + submission.getProblemName();
+                logger.info("No solutions manifest in the repository yet, starting a new index");
             }
+        } catch (Exception e) {
+            logger.warn("Failed to read solutions manifest from the repository", e);
+        }
+    }
+    
+    @Override
+    public boolean uploadSubmission(Submission submission) {
+        // The index files have to land in the same commit, which needs the Git Data API
+        if (solutionIndex != null) {
+            return uploadSubmissions(List.of(submission));
+        }
+        
+        byte[] codeBytes = submission.getCode().getBytes(StandardCharsets.UTF_8);
+        return uploadFile(submission.getLanguage(), submission.getProblemName(), codeBytes, GitBlobHasher.blobSha(codeBytes));
+    }
+    
+    // Queued submissions already hold the UTF-8 code and its blob id, so nothing is re-encoded or re-hashed
+    @Override
+    public boolean uploadCompactSubmission(CompactSubmission submission) {
+        if (solutionIndex != null) {
+            return uploadCompactSubmissions(List.of(submission));
+        }
+        
+        return uploadFile(submission.getLanguage(), submission.getProblemName(), submission.getCodeBytes(), submission.getContentSha());
+    }
+    
+    // One file through the Contents API; localSha is the git blob id of codeBytes
+    private boolean uploadFile(String language, String problemName, byte[] codeBytes, String localSha) {
+        try {
+            String filePath = buildFilePath(language, problemName);
             
-            String url = String.format("https://api.github.com/repos/%s/%s/contents/%s",
-                    configManager.getGitHubRepoOwner(),
-                    configManager.getGitHubRepoName(),
-                    filePath);
-            
-            Request request = new Request.Builder()
-                    .url(url)
-                    .put(RequestBody.create(requestBody, MediaType.get("application/json")))
-                    .addHeader("Accept", "application/vnd.github+json")
-                    .addHeader("X-GitHub-Api-Version", "2022-11-28")
-                    .addHeader("Authorization", "Bearer " + configManager.getGitHubToken())
-                    .build();
-            
-            Response response = null;
-            try {
-                response = httpClient.newCall(request).execute();
+            // The first attempt trusts the local index; a stale SHA gets one revalidated retry
+            for (int attempt = 0; attempt < 2; attempt++) {
+                String existingSha = attempt == 0
+                        ? resolveFileSha(filePath)
+                        : getFileSha(filePath, GitHubRequestScheduler.Priority.UPLOAD);
                 
-                if (response.isSuccessful()) {
-                    JsonNode responseBody = objectMapper.readTree(response.body().string());
-                    String commitUrl = responseBody.get("content").get("html_url").asText();
-                    
-                    logger.info("Successfully uploaded: {}", commitMessage);
-                    logger.info("File URL: {}", commitUrl);
-                    System.out.println("✅ Uploaded: " + commitMessage);
-                    
+                if (localSha.equals(existingSha)) {
+                    logger.info("Skipping upload, {} is unchanged", filePath);
+                    System.out.println("⏭️ Unchanged: " + problemName);
                     return true;
+                }
+                
+                RequestBody requestBody;
+                String commitMessage;
+                
+                if (existingSha != null) {
+                    // Update existing file
+                    requestBody = new ContentsRequestBody(objectMapper.getFactory(),
+                            "feat: update " + language + " solution for " + problemName,
+                            codeBytes,
+                            existingSha);
+                    commitMessage = "Updated " + language + " solution for " + problemName;
                 } else {
+                    // Create new file
+                    requestBody = new ContentsRequestBody(objectMapper.getFactory(),
+                            "feat: add " + language + " solution for " + problemName,
+                            codeBytes,
+                            null);
+                    commitMessage = "Added " + language + " solution for " + problemName;
+                }
+                
+                Request request = newRequest(repoUrl("contents/" + filePath))
+                        .put(requestBody)
+                        .build();
+                
+                try (Response response = requestScheduler.execute(httpClient.newCall(request), GitHubRequestScheduler.Priority.UPLOAD)) {
+                    if (response.isSuccessful()) {
+                        UploadedFile uploaded = parseUploadedFile(response.body());
+                        
+                        shaIndex.put(filePath, uploaded.sha, null);
+                        shaIndex.save();
+                        
+                        logger.info("Successfully uploaded: {}", commitMessage);
+                        logger.info("File URL: {}", uploaded.htmlUrl);
+                        System.out.println("✅ Uploaded: " + commitMessage);
+                        
+                        return true;
+                    }
+                    
                     String errorBody = response.body() != null ? response.body().string() : "No error body";
+                    if ((response.code() == 409 || response.code() == 422) && attempt == 0) {
+                        logger.info("Indexed SHA for {} is stale (status {}), revalidating", filePath, response.code());
+                        shaIndex.remove(filePath);
+                        continue;
+                    }
+                    
                     logger.error("Failed to upload to GitHub. Status: {}, Body: {}", response.code(), errorBody);
-                    System.out.println("❌ Failed to upload: " + submission.getProblemName());
+                    System.out.println("❌ Failed to upload: " + problemName);
                     return false;
                 }
-            } finally {
-                if (response != null) {
-                    response.close();
-                }
             }
             
+            return false;
+            
         } catch (Exception e) {
             logger.error("Error uploading submission to GitHub", e);
             System.out.println("❌ Error uploading: " + e.getMessage());
@@ -104,19 +184,232 @@ public class GitHubService {
         }
     }
     
+    @Override
+    public boolean uploadSubmissions(List<Submission> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            return true;
+        }
+
+        // Later submissions for the same file win, so the tree holds one entry per path
+        Map<String, Submission> filesByPath = new LinkedHashMap<>();
+        for (Submission submission : submissions) {
+            filesByPath.put(buildFilePath(submission), submission);
+        }
+
+        // Drop files whose content already matches the known remote blob
+        filesByPath.entrySet().removeIf(file ->
+                GitBlobHasher.blobSha(file.getValue().getCode()).equals(shaIndex.getSha(file.getKey())));
+        return commitFiles(filesByPath, submissions.size());
+    }
+    
+    // Unchanged files are found from the precomputed blob ids; only the changed ones are expanded
+    @Override
+    public boolean uploadCompactSubmissions(List<CompactSubmission> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            return true;
+        }
+        
+        Map<String, CompactSubmission> latestByPath = new LinkedHashMap<>();
+        for (CompactSubmission submission : submissions) {
+            latestByPath.put(buildFilePath(submission.getLanguage(), submission.getProblemName()), submission);
+        }
+        
+        Map<String, Submission> filesByPath = new LinkedHashMap<>();
+        for (Map.Entry<String, CompactSubmission> file : latestByPath.entrySet()) {
+            if (!Objects.equals(file.getValue().getContentSha(), shaIndex.getSha(file.getKey()))) {
+                filesByPath.put(file.getKey(), file.getValue().toSubmission());
+            }
+        }
+        return commitFiles(filesByPath, submissions.size());
+    }
+    
+    // One commit on the branch holding filesByPath (already free of unchanged files) and the index files
+    private boolean commitFiles(Map<String, Submission> filesByPath, int requested) {
+        if (filesByPath.isEmpty()) {
+            logger.info("Skipping batch commit, all {} submissions are unchanged", requested);
+            return true;
+        }
+
+        String branch = configManager.getGitHubBranch();
+
+        try {
+            // The tree response only lists the root's entries, so the blob ids are hashed from what is sent
+            List<TreeEntry> solutionEntries = new ArrayList<>();
+            Map<String, String> blobShas = new LinkedHashMap<>();
+            for (Map.Entry<String, Submission> file : filesByPath.entrySet()) {
+                String code = file.getValue().getCode();
+                solutionEntries.add(new TreeEntry(file.getKey(), code));
+                blobShas.put(file.getKey(), GitBlobHasher.blobSha(code));
+            }
+            String commitMessage = buildBatchCommitMessage(filesByPath.values());
+            String commitSha;
+
+            // Upload workers share the branch: one batch at a time goes from reading the head to moving it
+            synchronized (commitLock) {
+                for (int attempt = 1; ; attempt++) {
+                    // Five requests regardless of batch size: ref, commit, tree, commit, ref update
+                    String parentSha = readBranchHead(branch);
+
+                    JsonNode parentCommit = executeJson(newRequest(repoUrl("git/commits/" + parentSha)).get().build());
+                    String baseTreeSha = parentCommit.get("tree").get("sha").asText();
+
+                    List<TreeEntry> entries = new ArrayList<>(solutionEntries);
+                    if (solutionIndex != null) {
+                        for (Map.Entry<String, String> indexFile : solutionIndex.render(new ArrayList<>(filesByPath.values())).entrySet()) {
+                            entries.add(new TreeEntry(indexFile.getKey(), indexFile.getValue()));
+                        }
+                    }
+
+                    JsonNode tree = executeJson(newRequest(repoUrl("git/trees"))
+                            .post(RequestBody.create(objectMapper.writeValueAsString(new CreateTreeRequest(baseTreeSha, entries)), JSON))
+                            .build());
+
+                    JsonNode commit = executeJson(newRequest(repoUrl("git/commits"))
+                            .post(RequestBody.create(objectMapper.writeValueAsString(
+                                    new CreateCommitRequest(commitMessage, tree.get("sha").asText(), List.of(parentSha))), JSON))
+                            .build());
+                    commitSha = commit.get("sha").asText();
+
+                    if (updateBranch(branch, commitSha)) {
+                        // Still under the lock, so the next batch renders an index that includes these solutions
+                        if (solutionIndex != null) {
+                            solutionIndex.apply(new ArrayList<>(filesByPath.values()));
+                        }
+                        break;
+                    }
+                    if (attempt >= MAX_REF_UPDATE_ATTEMPTS) {
+                        throw new IllegalStateException(branch + " moved during each of " + attempt + " commit attempts");
+                    }
+                    // Someone else committed in between: rebuild on their head rather than re-send a stale commit
+                    logger.info("{} moved while committing, rebuilding the batch on the new head", branch);
+                }
+            }
+
+            blobShas.forEach((path, sha) -> shaIndex.put(path, sha, null));
+            shaIndex.save();
+
+            logger.info("Successfully uploaded {} solutions in commit {}", filesByPath.size(), commitSha);
+            System.out.println("✅ Uploaded " + filesByPath.size() + " solutions in one commit");
+            return true;
+
+        } catch (Exception e) {
+            logger.error("Error uploading batch of {} submissions to GitHub", filesByPath.size(), e);
+            System.out.println("❌ Error uploading batch: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Every blob on the branch (path -> sha) from a single recursive Git Trees call
+    public Map<String, String> fetchRepositoryTree() throws Exception {
+        // Named by branch, so a cached copy may predate the last commit; a 304 revalidation is free
+        Request request = newRequest(repoUrl("git/trees/" + configManager.getGitHubBranch() + "?recursive=1"))
+                .cacheControl(REVALIDATE)
+                .get()
+                .build();
+        JsonNode tree = executeJson(request, GitHubRequestScheduler.Priority.READ);
+
+        if (tree.path("truncated").asBoolean(false)) {
+            logger.warn("GitHub truncated the repository tree; files beyond the limit are treated as missing");
+        }
+
+        Map<String, String> blobs = new LinkedHashMap<>();
+        for (JsonNode entry : tree.path("tree")) {
+            if ("blob".equals(entry.path("type").asText())) {
+                blobs.put(entry.path("path").asText(), entry.path("sha").asText());
+            }
+        }
+
+        // The listing is authoritative, so later uploads can skip their pre-reads
+        if (!tree.path("truncated").asBoolean(false)) {
+            shaIndex.replaceAll(blobs);
+        } else {
+            blobs.forEach((path, sha) -> shaIndex.put(path, sha, null));
+        }
+        shaIndex.save();
+        return blobs;
+    }
+    
+    // The ref moves with every commit and the PATCH goes to another URL, so it never comes from the cache
+    private String readBranchHead(String branch) throws Exception {
+        JsonNode ref = executeJson(newRequest(repoUrl("git/ref/heads/" + branch))
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .get()
+                .build());
+        return ref.get("object").get("sha").asText();
+    }
+
+    // False when the ref is no longer the commit's parent (422, not a fast forward)
+    private boolean updateBranch(String branch, String commitSha) throws Exception {
+        Request request = newRequest(repoUrl("git/refs/heads/" + branch))
+                .patch(RequestBody.create(objectMapper.writeValueAsString(new UpdateRefRequest(commitSha, false)), JSON))
+                .build();
+        try (Response response = requestScheduler.execute(httpClient.newCall(request), GitHubRequestScheduler.Priority.UPLOAD)) {
+            if (response.isSuccessful()) {
+                return true;
+            }
+            String body = response.body() != null ? response.body().string() : "";
+            if (response.code() == 422) {
+                logger.debug("Ref update to {} rejected: {}", commitSha, body);
+                return false;
+            }
+            throw new IllegalStateException(String.format("PATCH %s failed. Status: %d, Body: %s",
+                    request.url().encodedPath(), response.code(), body));
+        }
+    }
+
+    private String buildBatchCommitMessage(Iterable<Submission> submissions) {
+        List<String> lines = new ArrayList<>();
+        for (Submission submission : submissions) {
+            lines.add("- " + submission.getLanguage() + " solution for " + submission.getProblemName());
+        }
+
+        if (lines.size() == 1) {
+            Submission only = submissions.iterator().next();
+            return "feat: add " + only.getLanguage() + " solution for " + only.getProblemName();
+        }
+        return "feat: add " + lines.size() + " solutions\n\n" + String.join("\n", lines);
+    }
+
+    private JsonNode executeJson(Request request) throws Exception {
+        return executeJson(request, GitHubRequestScheduler.Priority.UPLOAD);
+    }
+
+    private JsonNode executeJson(Request request, GitHubRequestScheduler.Priority priority) throws Exception {
+        try (Response response = requestScheduler.execute(httpClient.newCall(request), priority)) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IllegalStateException(String.format("%s %s failed. Status: %d, Body: %s",
+                        request.method(), request.url().encodedPath(), response.code(), body));
+            }
+            return objectMapper.readTree(body);
+        }
+    }
+
+    private Request.Builder newRequest(String url) {
+        return new Request.Builder()
+                .url(url)
+                .addHeader("Accept", "application/vnd.github+json")
+                .addHeader("X-GitHub-Api-Version", "2022-11-28")
+                .addHeader("Authorization", "Bearer " + configManager.getGitHubToken());
+    }
+
+    private String repoUrl(String path) {
+        return String.format("%s/repos/%s/%s/%s",
+                configManager.getGitHubApiUrl(),
+                configManager.getGitHubRepoOwner(),
+                configManager.getGitHubRepoName(),
+                path);
+    }
+
     public boolean testConnection() {
         try {
-            Request request = new Request.Builder()
-                    .url("https://api.github.com/user")
+            Request request = newRequest(configManager.getGitHubApiUrl() + "/user")
                     .get()
-                    .addHeader("Accept", "application/vnd.github+json")
-                    .addHeader("X-GitHub-Api-Version", "2022-11-28")
-                    .addHeader("Authorization", "Bearer " + configManager.getGitHubToken())
                     .build();
             
             Response response = null;
             try {
-                response = httpClient.newCall(request).execute();
+                response = requestScheduler.execute(httpClient.newCall(request), GitHubRequestScheduler.Priority.READ);
                 
                 if (response.isSuccessful()) {
                     JsonNode user = objectMapper.readTree(response.body().string());
@@ -138,27 +431,97 @@ public class GitHubService {
         }
     }
     
-    private String getFileSha(String filePath) {
+    // Pulls content.sha and content.html_url out of a Contents API response without building a tree
+    private UploadedFile parseUploadedFile(ResponseBody body) throws IOException {
+        UploadedFile uploaded = new UploadedFile();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected contents response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String contentField = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("sha".equals(contentField)) {
+                            uploaded.sha = parser.getValueAsString();
+                        } else if ("html_url".equals(contentField)) {
+                            uploaded.htmlUrl = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        
+        if (uploaded.sha == null) {
+            throw new IOException("Contents response did not include content.sha");
+        }
+        return uploaded;
+    }
+    
+    // File reads embed the whole base64 file; stream past it and keep only the top-level sha
+    private String parseTopLevelSha(ResponseBody body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("sha".equals(field)) {
+                    return parser.getValueAsString();
+                }
+                parser.skipChildren();
+            }
+        }
+        return null;
+    }
+    
+    private String resolveFileSha(String filePath) {
+        String indexedSha = shaIndex.getSha(filePath);
+        if (indexedSha != null) {
+            logger.debug("Using indexed SHA for {}", filePath);
+            return indexedSha;
+        }
+        if (shaIndex.isComplete()) {
+            logger.debug("{} is not in the repository listing, creating it", filePath);
+            return null;
+        }
+        return getFileSha(filePath, GitHubRequestScheduler.Priority.UPLOAD);
+    }
+    
+    private String getFileSha(String filePath, GitHubRequestScheduler.Priority priority) {
         try {
-            String url = String.format("https://api.github.com/repos/%s/%s/contents/%s",
-                    configManager.getGitHubRepoOwner(),
-                    configManager.getGitHubRepoName(),
-                    filePath);
-            
-            Request request = new Request.Builder()
-                    .url(url)
-                    .get()
-                    .addHeader("Accept", "application/vnd.github+json")
-                    .addHeader("X-GitHub-Api-Version", "2022-11-28")
-                    .addHeader("Authorization", "Bearer " + configManager.getGitHubToken())
-                    .build();
+            Request.Builder builder = newRequest(repoUrl("contents/" + filePath)).get();
             
-            Response response = httpClient.newCall(request).execute();
+            // A 304 answer to a conditional request does not count against the rate limit
+            FileShaIndex.Entry known = shaIndex.get(filePath);
+            if (known != null && known.etag != null) {
+                builder.header("If-None-Match", known.etag);
+            }
             
-            if (response.isSuccessful()) {
-                JsonNode fileInfo = objectMapper.readTree(response.body().string());
-                return fileInfo.get("sha").asText();
-            } else {
+            try (Response response = requestScheduler.execute(httpClient.newCall(builder.build()), priority)) {
+                if (response.code() == 304 && known != null) {
+                    logger.debug("File unchanged since last check: {}", filePath);
+                    return known.sha;
+                }
+                
+                if (response.isSuccessful()) {
+                    String sha = parseTopLevelSha(response.body());
+                    shaIndex.put(filePath, sha, response.header("ETag"));
+                    shaIndex.save();
+                    return sha;
+                }
+                
+                if (response.code() == 404) {
+                    shaIndex.remove(filePath);
+                }
                 logger.debug("File does not exist or error checking: {}", filePath);
                 return null;
             }
@@ -169,12 +532,15 @@ public class GitHubService {
         }
     }
     
-    private String buildFilePath(Submission submission) {
-        String extension = getLanguageExtension(submission.getLanguage());
-        return String.format("%s/%s.%s", submission.getLanguage().toLowerCase(), submission.getProblemName(), extension);
+    static String buildFilePath(Submission submission) {
+        return buildFilePath(submission.getLanguage(), submission.getProblemName());
     }
     
-    private String getLanguageExtension(String language) {
+    static String buildFilePath(String language, String problemName) {
+        return String.format("%s/%s.%s", language.toLowerCase(), problemName, getLanguageExtension(language));
+    }
+    
+    static String getLanguageExtension(String language) {
         if (language == null) return "txt";
         
         String lang = language.toLowerCase();
@@ -230,11 +596,32 @@ public class GitHubService {
             case "racket":
             case "rkt":
                 return "rkt";
+            case "bash":
+            case "sh":
+                return "sh";
+            case "pandas":
+                return "py";
+            case "mysql":
+            case "mssql":
+            case "oraclesql":
+            case "postgresql":
+            case "sql":
+                return "sql";
             default:
                 return "txt";
         }
     }
     
+    // Requests left in the current rate-limit window, or -1 before GitHub has reported it
+    public int getRateLimitRemaining() {
+        return requestScheduler.getRemainingBudget();
+    }
+    
+    // Shared so other HTTP clients can reuse its connection pool and dispatcher
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+    
     public ConfigurationManager getConfigManager() {
         return configManager;
     }
@@ -260,4 +647,53 @@ public class GitHubService {
             this.sha = sha;
         }
     }
+
+    private static class UploadedFile {
+        private String sha;
+        private String htmlUrl;
+    }
+    
+    public static class TreeEntry {
+        public String path;
+        public String mode = "100644";
+        public String type = "blob";
+        public String content;
+
+        public TreeEntry(String path, String content) {
+            this.path = path;
+            this.content = content;
+        }
+    }
+
+    public static class CreateTreeRequest {
+        public String base_tree;
+        public List<TreeEntry> tree;
+
+        public CreateTreeRequest(String baseTree, List<TreeEntry> tree) {
+            this.base_tree = baseTree;
+            this.tree = tree;
+        }
+    }
+
+    public static class CreateCommitRequest {
+        public String message;
+        public String tree;
+        public List<String> parents;
+
+        public CreateCommitRequest(String message, String tree, List<String> parents) {
+            this.message = message;
+            this.tree = tree;
+            this.parents = parents;
+        }
+    }
+
+    public static class UpdateRefRequest {
+        public String sha;
+        public boolean force;
+
+        public UpdateRefRequest(String sha, boolean force) {
+            this.sha = sha;
+            this.force = force;
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.leetcodetojava.service;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Trims the monitored Chrome down to what the editor and LeetCode's APIs need: no images, fonts,
+// media, ads or telemetry, and none of Chrome's own background services. Scripts, styles and
+// XHR/fetch to leetcode.com are left alone so the page, Monaco and submissions keep working.
+public final class LeanBrowserProfile {
+    private static final Logger logger = LoggerFactory.getLogger(LeanBrowserProfile.class);
+
+    private static final List<String> BLOCKED_URL_PATTERNS = List.of(
+            // Images and icons
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.ico", "*.bmp",
+            // Web fonts
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot",
+            // Audio and video
+            "*.mp4", "*.webm", "*.mp3", "*.ogg", "*.wav", "*.m3u8",
+            // Ads, analytics and telemetry
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googlesyndication.com*",
+            "*adservice.google.*", "*facebook.net*", "*connect.facebook.*", "*hotjar.com*", "*sentry.io*",
+            "*segment.io*", "*segment.com*", "*amplitude.com*", "*mixpanel.com*", "*intercom.io*", "*clarity.ms*");
+
+    private LeanBrowserProfile() {
+    }
+
+    public static void apply(ChromeOptions options) {
+        options.addArguments(
+                "--blink-settings=imagesEnabled=false",
+                "--mute-audio",
+                "--autoplay-policy=user-gesture-required",
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-features=Translate,MediaRouter,OptimizationHints,AutofillServerCommunication",
+                "--metrics-recording-only",
+                "--no-first-run",
+                "--renderer-process-limit=2");
+
+        // Content settings: 2 = block
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.managed_default_content_settings.images", 2);
+        prefs.put("profile.managed_default_content_settings.media_stream", 2);
+        prefs.put("profile.managed_default_content_settings.notifications", 2);
+        prefs.put("profile.managed_default_content_settings.geolocation", 2);
+        prefs.put("profile.managed_default_content_settings.plugins", 2);
+        prefs.put("profile.managed_default_content_settings.popups", 2);
+        options.setExperimentalOption("prefs", prefs);
+    }
+
+    // Goes through ChromeDriver's own CDP endpoint, so it stays in force regardless of other DevTools sessions
+    public static void blockRequests(ChromiumDriver driver, List<String> extraPatterns) {
+        List<String> patterns = new ArrayList<>(BLOCKED_URL_PATTERNS);
+        patterns.addAll(extraPatterns);
+        try {
+            driver.executeCdpCommand("Network.enable", Map.of());
+            driver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            logger.info("Lean browser mode: blocking {} URL patterns", patterns.size());
+        } catch (Exception e) {
+            logger.warn("Could not install request blocking, continuing with a full browser", e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodetojava.config.ConfigurationManager;
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Talks to LeetCode's GraphQL endpoint with the cookies of the logged-in browser session
+public class LeetCodeGraphQLClient {
+    private static final Logger logger = LoggerFactory.getLogger(LeetCodeGraphQLClient.class);
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final int ACCEPTED_STATUS_CODE = 10;
+
+    private static final String RECENT_AC_QUERY =
+            "query recentAcSubmissions($username: String!, $limit: Int!) {"
+                    + " recentAcSubmissionList(username: $username, limit: $limit) { id titleSlug timestamp } }";
+    private static final String SUBMISSION_DETAILS_QUERY =
+            "query submissionDetails($submissionId: Int!) {"
+                    + " submissionDetails(submissionId: $submissionId) {"
+                    + " code timestamp statusCode lang { name } question { titleSlug difficulty } } }";
+    private static final String USER_STATUS_QUERY =
+            "query globalData { userStatus { username isSignedIn } }";
+
+    private final ConfigurationManager configManager;
+    private final ObjectMapper objectMapper;
+    private final SessionCookieJar cookieJar;
+    private final OkHttpClient httpClient;
+
+    // Shares the connection pool and dispatcher of the given client, with its own cookie jar
+    public LeetCodeGraphQLClient(OkHttpClient sharedClient, ConfigurationManager configManager) {
+        this.configManager = configManager;
+        this.objectMapper = new ObjectMapper();
+        this.cookieJar = new SessionCookieJar();
+        this.httpClient = sharedClient.newBuilder()
+                .cache(null)
+                .cookieJar(cookieJar)
+                .build();
+    }
+
+    public void updateCookies(Set<org.openqa.selenium.Cookie> browserCookies) {
+        HttpUrl graphqlUrl = HttpUrl.get(configManager.getLeetCodeGraphQLUrl());
+        List<Cookie> cookies = new ArrayList<>();
+        for (org.openqa.selenium.Cookie browserCookie : browserCookies) {
+            cookies.add(new Cookie.Builder()
+                    .name(browserCookie.getName())
+                    .value(browserCookie.getValue())
+                    .hostOnlyDomain(graphqlUrl.host())
+                    .path("/")
+                    .build());
+        }
+        cookieJar.replace(cookies);
+    }
+
+    public boolean hasSession() {
+        return cookieJar.get("LEETCODE_SESSION") != null;
+    }
+
+    public String fetchSignedInUsername() throws IOException {
+        JsonNode status = query(USER_STATUS_QUERY, objectMapper.createObjectNode()).path("userStatus");
+        return status.path("isSignedIn").asBoolean(false) ? status.path("username").asText(null) : null;
+    }
+
+    public List<RecentSubmission> fetchRecentAccepted(String username, int limit) throws IOException {
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("username", username);
+        variables.put("limit", limit);
+
+        List<RecentSubmission> submissions = new ArrayList<>();
+        for (JsonNode node : query(RECENT_AC_QUERY, variables).path("recentAcSubmissionList")) {
+            submissions.add(new RecentSubmission(
+                    node.path("id").asText(),
+                    node.path("titleSlug").asText(),
+                    node.path("timestamp").asLong()));
+        }
+        return submissions;
+    }
+
+    // One page of the signed-in user's whole submission history, newest first. Only accepted
+    // submissions are returned; the page key is what LeetCode expects for the next page.
+    public HistoryPage fetchSubmissionHistory(int offset, int limit, String lastKey) throws IOException {
+        HttpUrl url = HttpUrl.get(configManager.getLeetCodeBaseUrl() + "/api/submissions/").newBuilder()
+                .addQueryParameter("offset", String.valueOf(offset))
+                .addQueryParameter("limit", String.valueOf(limit))
+                .addQueryParameter("lastkey", lastKey != null ? lastKey : "")
+                .build();
+        Request.Builder builder = new Request.Builder()
+                .url(url)
+                .get()
+                .header("Referer", configManager.getLeetCodeBaseUrl());
+
+        try (Response response = httpClient.newCall(builder.build()).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("LeetCode submission history request failed. Status: " + response.code());
+            }
+
+            JsonNode result = objectMapper.readTree(body);
+            HistoryPage page = new HistoryPage();
+            JsonNode dump = result.path("submissions_dump");
+            page.listed = dump.size();
+            for (JsonNode node : dump) {
+                if ("Accepted".equals(node.path("status_display").asText())) {
+                    page.submissions.add(new RecentSubmission(
+                            node.path("id").asText(),
+                            node.path("title_slug").asText(),
+                            node.path("timestamp").asLong(),
+                            node.path("lang").asText(null)));
+                }
+            }
+            page.hasNext = result.path("has_next").asBoolean(false);
+            page.lastKey = result.path("last_key").asText(null);
+            return page;
+        }
+    }
+
+    // Returns null when LeetCode returns no details: the submission is not visible to this session,
+    // the session has expired or the query was throttled. Callers cannot tell these apart.
+    public SubmissionDetail fetchSubmissionDetail(String submissionId) throws IOException {
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("submissionId", Long.parseLong(submissionId));
+
+        JsonNode details = query(SUBMISSION_DETAILS_QUERY, variables).path("submissionDetails");
+        if (details.isMissingNode() || details.isNull()) {
+            return null;
+        }
+
+        SubmissionDetail detail = new SubmissionDetail();
+        detail.submissionId = submissionId;
+        detail.code = details.path("code").asText();
+        detail.language = details.path("lang").path("name").asText();
+        detail.titleSlug = details.path("question").path("titleSlug").asText();
+        detail.difficulty = details.path("question").path("difficulty").asText(null);
+        detail.timestamp = details.path("timestamp").asLong();
+        detail.accepted = details.path("statusCode").asInt() == ACCEPTED_STATUS_CODE;
+        return detail;
+    }
+
+    private JsonNode query(String query, ObjectNode variables) throws IOException {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("query", query);
+        payload.set("variables", variables);
+
+        Request.Builder builder = new Request.Builder()
+                .url(configManager.getLeetCodeGraphQLUrl())
+                .post(RequestBody.create(objectMapper.writeValueAsString(payload), JSON))
+                .header("Referer", configManager.getLeetCodeBaseUrl());
+        Cookie csrfToken = cookieJar.get("csrftoken");
+        if (csrfToken != null) {
+            builder.header("x-csrftoken", csrfToken.value());
+        }
+
+        try (Response response = httpClient.newCall(builder.build()).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("LeetCode GraphQL request failed. Status: " + response.code());
+            }
+
+            JsonNode result = objectMapper.readTree(body);
+            if (result.hasNonNull("errors")) {
+                logger.debug("LeetCode GraphQL errors: {}", result.get("errors"));
+            }
+            return result.path("data");
+        }
+    }
+
+    public static class RecentSubmission {
+        private final String id;
+        private final String titleSlug;
+        private final long timestamp;
+        private final String language; // only known for history entries
+
+        public RecentSubmission(String id, String titleSlug, long timestamp) {
+            this(id, titleSlug, timestamp, null);
+        }
+
+        public RecentSubmission(String id, String titleSlug, long timestamp, String language) {
+            this.id = id;
+            this.titleSlug = titleSlug;
+            this.timestamp = timestamp;
+            this.language = language;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getTitleSlug() {
+            return titleSlug;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+    }
+
+    public static class HistoryPage {
+        private final List<RecentSubmission> submissions = new ArrayList<>();
+        private int listed;
+        private boolean hasNext;
+        private String lastKey;
+
+        public List<RecentSubmission> getSubmissions() {
+            return submissions;
+        }
+
+        // Entries on the page before filtering, used to advance the offset
+        public int getListed() {
+            return listed;
+        }
+
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        public String getLastKey() {
+            return lastKey;
+        }
+    }
+
+    public static class SubmissionDetail {
+        private String submissionId;
+        private String code;
+        private String language;
+        private String titleSlug;
+        private String difficulty;
+        private long timestamp;
+        private boolean accepted;
+
+        public String getSubmissionId() {
+            return submissionId;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+
+        public String getTitleSlug() {
+            return titleSlug;
+        }
+
+        public String getDifficulty() {
+            return difficulty;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean isAccepted() {
+            return accepted;
+        }
+    }
+
+    private static class SessionCookieJar implements CookieJar {
+        private volatile List<Cookie> cookies = Collections.emptyList();
+
+        private void replace(List<Cookie> newCookies) {
+            this.cookies = List.copyOf(newCookies);
+        }
+
+        private Cookie get(String name) {
+            for (Cookie cookie : cookies) {
+                if (cookie.name().equals(name)) {
+                    return cookie;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<Cookie> loadForRequest(HttpUrl url) {
+            List<Cookie> matching = new ArrayList<>();
+            for (Cookie cookie : cookies) {
+                if (cookie.matches(url)) {
+                    matching.add(cookie);
+                }
+            }
+            return matching;
+        }
+
+        @Override
+        public void saveFromResponse(HttpUrl url, List<Cookie> responseCookies) {
+            // Keep refreshed tokens (csrftoken rotates) until the next browser copy
+            List<Cookie> merged = new ArrayList<>(cookies);
+            for (Cookie responseCookie : responseCookies) {
+                merged.removeIf(cookie -> cookie.name().equals(responseCookie.name()));
+                merged.add(responseCookie);
+            }
+            this.cookies = List.copyOf(merged);
+        }
+    }
+}
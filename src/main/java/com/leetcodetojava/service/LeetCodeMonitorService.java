@@ -1,155 +1,562 @@
 package com.leetcodetojava.service;
 
 import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
 import com.leetcodetojava.model.Submission;
-import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class LeetCodeMonitorService {
     private static final Logger logger = LoggerFactory.getLogger(LeetCodeMonitorService.class);
     private static final String LEETCODE_BASE_URL = "https://leetcode.com";
+    private static final long SUBMIT_WINDOW_MILLIS = 60_000;
+    private static final long EDIT_WINDOW_MILLIS = 30_000;
+    private static final long AWAY_AFTER_MILLIS = 5 * 60_000;
+    private static final int PROCESSED_CACHE_SIZE = 1024;
+    private static final long DETAIL_RETRY_BASE_MILLIS = 30_000;
+    private static final long DETAIL_RETRY_MAX_MILLIS = 10 * 60_000;
     
     private final GitHubService githubService;
+    private final UploadQueue uploadQueue;
     private final ConfigurationManager configManager;
     private WebDriver driver;
     private WebDriverWait wait;
-    private final Map<String, Submission> pendingSubmissions;
+    private final Map<String, TabState> tabs; // by window handle
     private final AtomicBoolean isMonitoring;
-    private String currentProblemName;
-    private final Set<String> processedSubmissions; // Track processed submissions to avoid reprocessing
+    private final SubmissionIdIndex processedSubmissions; // Submission IDs already handled, kept across restarts
+    private final Set<String> processedWithoutId; // problem/language/code of handled submissions whose page showed no ID
+    private LeetCodeGraphQLClient graphQLClient;
+    private String leetCodeUsername;
+    private long cookiesCopiedAt;
+    private boolean graphQLBaselineTaken;
+    private final Map<String, DetailRetry> detailRetries = new HashMap<>(); // submission ID -> when to ask again
+    private CdpSubmissionListener cdpListener;
+    private final Queue<Submission> capturedBacklog; // captured by the DevTools listener while the queue was full
+    private final AdaptivePollInterval pollInterval;
+    private volatile AdaptivePollInterval.PageState pageState; // most urgent state across all tabs
+    private String currentHandle; // window the driver is switched to
+    private String homeHandle; // window the monitor opened; the only one it navigates on its own
+    private int roundRobinCursor;
+    private final ChromeSessionManager browserSessions;
+    private final MetricsRegistry.Histogram tickSeconds;
+    private final MetricsRegistry.Histogram webDriverCallsPerTick;
+    private final MetricsRegistry.Histogram codeExtractionSeconds;
+    private final MetricsRegistry.Counter browserStarts;
+    private final MetricsRegistry.Counter checkErrors;
+    private long standbyCookiesCopiedAt;
     
-    public LeetCodeMonitorService(GitHubService githubService) {
+    public LeetCodeMonitorService(GitHubService githubService, UploadQueue uploadQueue) {
         this.githubService = githubService;
+        this.uploadQueue = uploadQueue;
         this.configManager = githubService.getConfigManager();
-        this.pendingSubmissions = new HashMap<>();
-        this.processedSubmissions = new HashSet<>();
+        this.tabs = new ConcurrentHashMap<>();
+        this.processedSubmissions = new SubmissionIdIndex(configManager.getStateDirectory().resolve("submission-ids.idx"),
+                PROCESSED_CACHE_SIZE, configManager.getMonitorSeenIdsMax());
+        this.processedWithoutId = Collections.synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > PROCESSED_CACHE_SIZE;
+            }
+        }));
+        this.capturedBacklog = new ConcurrentLinkedQueue<>();
+        this.pollInterval = new AdaptivePollInterval(configManager.getMonitorMinIntervalMillis(),
+                configManager.getMonitorIntervalSeconds() * 1000L, configManager.getMonitorMaxIntervalSeconds() * 1000L);
+        this.pageState = AdaptivePollInterval.PageState.VIEWING;
         this.isMonitoring = new AtomicBoolean(false);
+        this.browserSessions = new ChromeSessionManager(configManager);
+        
+        MetricsRegistry metrics = MetricsRegistry.global();
+        String account = configManager.getAccountLabel();
+        String mode = configManager.getDetectionMode().toLowerCase();
+        this.tickSeconds = metrics.histogram("leetcode_monitor_tick_seconds", "Duration of one submission check",
+                MetricsRegistry.LATENCY_BUCKETS, "account", account, "mode", mode);
+        this.webDriverCallsPerTick = metrics.histogram("leetcode_monitor_webdriver_calls_per_tick",
+                "WebDriver commands sent during one submission check", MetricsRegistry.COUNT_BUCKETS,
+                "account", account, "mode", mode);
+        this.codeExtractionSeconds = metrics.histogram("leetcode_monitor_code_extraction_seconds",
+                "Time to read one tab's page snapshot and refresh its editor code", MetricsRegistry.LATENCY_BUCKETS,
+                "account", account);
+        this.browserStarts = metrics.counter("leetcode_browser_starts_total",
+                "Monitored browsers started or taken over from the standby", "account", account);
+        this.checkErrors = metrics.counter("leetcode_monitor_errors_total",
+                "Submission checks that ended in an unexpected error", "account", account);
     }
     
+    // Adopts the warm standby when there is one, otherwise launches Chrome
     private void initializeDriver() {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--no-sandbox", "--disable-dev-shm-usage", "--disable-gpu", "--window-size=1920,1080");
-        
-        if (configManager.isHeadlessMode()) {
-            options.addArguments("--headless");
-        } else {
-            logger.info("Running in visible mode - Chrome window should be visible");
-        }
-        
-        driver = new ChromeDriver(options);
+        driver = browserSessions.acquire();
+        browserStarts.increment();
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        
-        logger.info("WebDriver initialized successfully");
+        standbyCookiesCopiedAt = 0;
+        tabs.clear();
+        currentHandle = driver.getWindowHandle();
+        homeHandle = currentHandle;
+    }
+    
+    private void discardDriver() {
+        if (cdpListener != null) {
+            cdpListener.detach();
+        }
+        ChromeSessionManager.quitQuietly(driver);
+        driver = null;
     }
     
     public void checkForSubmissions() {
+        long startNanos = System.nanoTime();
+        long callsBefore = browserSessions.getWebDriverCalls();
+        try {
+            runCheck();
+        } finally {
+            tickSeconds.observeSince(startNanos);
+            webDriverCallsPerTick.observe(browserSessions.getWebDriverCalls() - callsBefore);
+        }
+    }
+    
+    private void runCheck() {
         try {
             if (driver == null) {
                 initializeDriver();
                 startMonitoring();
             }
             
-            // Check if session is still valid
+            // Check if session is still valid; the window list stays readable when the user closes
+            // the tab the driver is on, where any call on the current window would fail
+            Set<String> handles;
             try {
-                driver.getCurrentUrl();
+                handles = driver.getWindowHandles();
+                if (handles.isEmpty()) {
+                    throw new IllegalStateException("No browser windows left");
+                }
             } catch (Exception e) {
-                logger.warn("Browser session invalid, reinitializing driver");
-                driver = null;
+                logger.warn("Browser session invalid, replacing driver");
+                discardDriver();
                 initializeDriver();
                 startMonitoring();
                 return;
             }
+            if (!handles.contains(currentHandle)) {
+                switchToTab(handles.iterator().next());
+            }
+            if (!handles.contains(homeHandle)) {
+                homeHandle = currentHandle;
+            }
             
-            String currentUrl = driver.getCurrentUrl();
+            long now = System.currentTimeMillis();
+            if (configManager.isStandbyBrowserEnabled()
+                    && now - standbyCookiesCopiedAt > configManager.getCookieRefreshSeconds() * 1000L) {
+                browserSessions.syncCookies(driver.manage().getCookies());
+                standbyCookiesCopiedAt = now;
+            }
             
-            if (isOnLeetCodeProblemPage()) {
-                // First check for new submissions (code in editor), then check results
-                checkForNewSubmissions();
-                checkForSubmissionResults();
-            } else if (currentUrl.contains("/submissions/")) {
-                checkForSubmissionResultsOnSubmissionsPage();
-            } else {
-                // Navigate to LeetCode if not already there
-                if (!currentUrl.contains("leetcode.com")) {
-                    driver.get(LEETCODE_BASE_URL);
-                    logger.info("Navigated to LeetCode");
+            if ("graphql".equalsIgnoreCase(configManager.getDetectionMode())) {
+                checkForSubmissionsViaGraphQL();
+                return;
+            }
+            
+            if (isCdpMode()) {
+                // Submissions arrive as events; the tick only keeps the listener attached and retries a full queue
+                if (cdpListener == null || !cdpListener.isAttached()) {
+                    attachCdpListener();
                 }
+                retryCapturedSubmissions();
+                return;
             }
             
+            scanTabs(handles);
+            
         } catch (Exception e) {
             logger.error("Error checking for submissions", e);
+            checkErrors.increment();
             // If there's a session error, reset the driver
             if (e.getMessage() != null && e.getMessage().contains("invalid session")) {
-                logger.info("Detected session error, will reinitialize driver on next check");
-                driver = null;
+                logger.info("Detected session error, will replace driver on next check");
+                discardDriver();
+            }
+        }
+    }
+    
+    // One small API call per tick instead of scraping the page; the browser only provides the login
+    private void checkForSubmissionsViaGraphQL() throws Exception {
+        if (graphQLClient == null) {
+            graphQLClient = new LeetCodeGraphQLClient(githubService.getHttpClient(), configManager);
+        }
+        
+        long now = System.currentTimeMillis();
+        if (!graphQLClient.hasSession() || now - cookiesCopiedAt > configManager.getCookieRefreshSeconds() * 1000L) {
+            graphQLClient.updateCookies(driver.manage().getCookies());
+            cookiesCopiedAt = now;
+            if (!graphQLClient.hasSession()) {
+                logger.debug("Not logged in to LeetCode yet, waiting for LEETCODE_SESSION cookie");
+                return;
+            }
+        }
+        
+        if (leetCodeUsername == null) {
+            leetCodeUsername = configManager.getLeetCodeUsername();
+            if (leetCodeUsername.isEmpty() || leetCodeUsername.startsWith("your_")) {
+                leetCodeUsername = graphQLClient.fetchSignedInUsername();
+            }
+            if (leetCodeUsername == null) {
+                // Session cookie is stale; copy fresh cookies next tick
+                cookiesCopiedAt = 0;
+                return;
+            }
+            logger.info("Watching accepted submissions of LeetCode user {}", leetCodeUsername);
+        }
+        
+        List<LeetCodeGraphQLClient.RecentSubmission> recent =
+                graphQLClient.fetchRecentAccepted(leetCodeUsername, configManager.getGraphQLRecentLimit());
+        
+        // On the very first run everything accepted before we started is history, not a new submission;
+        // after that the index remembers what was handled, including while the uploader was not running
+        if (!graphQLBaselineTaken) {
+            graphQLBaselineTaken = true;
+            if (processedSubmissions.size() == 0) {
+                for (LeetCodeGraphQLClient.RecentSubmission submission : recent) {
+                    markProcessed(submission.getId(), null);
+                }
+                logger.info("Ignoring {} previously accepted submissions", recent.size());
+                return;
+            }
+        }
+        
+        // A submission that drops out of the recent list is no longer retried
+        Set<String> recentIds = new HashSet<>();
+        for (LeetCodeGraphQLClient.RecentSubmission recentSubmission : recent) {
+            recentIds.add(recentSubmission.getId());
+        }
+        detailRetries.keySet().retainAll(recentIds);
+        
+        for (LeetCodeGraphQLClient.RecentSubmission recentSubmission : recent) {
+            if (isProcessed(recentSubmission.getId(), null)) {
+                continue;
+            }
+            DetailRetry retry = detailRetries.get(recentSubmission.getId());
+            if (retry != null && now < retry.notBefore) {
+                continue;
+            }
+            
+            LeetCodeGraphQLClient.SubmissionDetail detail = graphQLClient.fetchSubmissionDetail(recentSubmission.getId());
+            if (detail == null) {
+                // Throttling, a GraphQL error or an expired session, not a rejected submission:
+                // leave it unseen and ask again later with fresh cookies
+                retry = detailRetries.computeIfAbsent(recentSubmission.getId(), id -> new DetailRetry());
+                retry.failures++;
+                long delay = Math.min(DETAIL_RETRY_MAX_MILLIS, DETAIL_RETRY_BASE_MILLIS << Math.min(retry.failures - 1, 10));
+                retry.notBefore = now + delay;
+                cookiesCopiedAt = 0;
+                logger.warn("Could not read details of submission {} ({} attempts), retrying in {} s",
+                        recentSubmission.getId(), retry.failures, delay / 1000);
+                continue;
+            }
+            detailRetries.remove(recentSubmission.getId());
+            if (!detail.isAccepted()) {
+                markProcessed(recentSubmission.getId(), null);
+                continue;
+            }
+            
+            String language = mapLanguageName(detail.getLanguage());
+            if (language == null) {
+                logger.warn("Skipping submission {} for {}: unsupported language {}",
+                        detail.getSubmissionId(), detail.getTitleSlug(), detail.getLanguage());
+                markProcessed(recentSubmission.getId(), null);
+                continue;
+            }
+            
+            Submission submission = new Submission();
+            submission.setSubmissionId(detail.getSubmissionId());
+            submission.setProblemName(detail.getTitleSlug());
+            submission.setLanguage(language);
+            submission.setDifficulty(detail.getDifficulty());
+            submission.setCode(cleanExtractedCode(detail.getCode()));
+            submission.setStatus("Accepted");
+            
+            // A full queue leaves the ID unseen so the next tick offers it again
+            if (uploadQueue.enqueue(submission)) {
+                markProcessed(recentSubmission.getId(), null);
+                logger.info("Queued accepted submission {} for: {} ({} queued)",
+                        detail.getSubmissionId(), detail.getTitleSlug(), uploadQueue.getQueueDepth());
+            } else {
+                logger.warn("Upload queue full, will retry submission {} next check", detail.getSubmissionId());
+                break;
+            }
+        }
+    }
+    
+    // Delay before the next checkForSubmissions call
+    public long getNextCheckDelayMillis() {
+        if (isCdpMode()) {
+            return configManager.getHealthCheckSeconds() * 1000L;
+        }
+        if (!isDomMode()) {
+            return configManager.getMonitorIntervalSeconds() * 1000L;
+        }
+        return pollInterval.next(pageState);
+    }
+    
+    // Tabs that are mid-submit, being edited or holding a pending submission are read every tick;
+    // the rest share a round-robin budget. The driver never switches windows to read them: its own
+    // tab goes through WebDriver and every other tab through a DevTools session on that tab.
+    private void scanTabs(Set<String> handles) {
+        tabs.keySet().retainAll(handles);
+        
+        List<String> due = new ArrayList<>();
+        List<String> others = new ArrayList<>();
+        for (String handle : handles) {
+            TabState tab = tabs.get(handle);
+            if (handle.equals(currentHandle)) {
+                due.add(0, handle);
+            } else if (tab == null || tab.isHot()) {
+                due.add(handle);
+            } else {
+                others.add(handle);
+            }
+        }
+        int budget = Math.min(others.size(), configManager.getMonitorTabsPerTick());
+        for (int i = 0; i < budget; i++) {
+            due.add(others.get((roundRobinCursor + i) % others.size()));
+        }
+        roundRobinCursor = others.isEmpty() ? 0 : (roundRobinCursor + budget) % others.size();
+        
+        for (String handle : due) {
+            scanTab(tabs.computeIfAbsent(handle, TabState::new));
+        }
+        
+        AdaptivePollInterval.PageState mostUrgent = AdaptivePollInterval.PageState.IDLE;
+        for (TabState tab : tabs.values()) {
+            if (tab.pageState.ordinal() < mostUrgent.ordinal()) {
+                mostUrgent = tab.pageState;
+            }
+        }
+        pageState = mostUrgent;
+    }
+    
+    private void scanTab(TabState tab) {
+        PageSnapshot snapshot;
+        long startNanos = System.nanoTime();
+        try {
+            snapshot = tab.handle.equals(currentHandle)
+                    ? PageSnapshot.capture(driver, tab.codeVersion)
+                    : PageSnapshot.capture(((HasDevTools) driver).getDevTools(), tab.handle, tab.codeVersion);
+        } catch (NoSuchWindowException e) {
+            tabs.remove(tab.handle);
+            return;
+        } catch (JavascriptException e) {
+            logger.debug("Page snapshot failed, page is probably still loading", e);
+            return;
+        } catch (DevToolsException e) {
+            // Usually a tab closed since the window list was read; the next tick no longer lists it
+            logger.debug("Could not read background tab {}", tab.handle, e);
+            return;
+        }
+        
+        String currentUrl = snapshot.getUrl();
+        boolean codeChanged = refreshEditorCode(tab, snapshot);
+        codeExtractionSeconds.observeSince(startNanos);
+        tab.pageState = classifyPage(snapshot, codeChanged);
+        
+        if (!currentUrl.contains("leetcode.com")) {
+            // Navigate to LeetCode if not already there; tabs the user opened elsewhere are left alone
+            if (tab.handle.equals(homeHandle)) {
+                driver.get(LEETCODE_BASE_URL);
+                logger.info("Navigated to LeetCode");
+            }
+        } else if (snapshot.isProblemPage()) {
+            // The tab moved on to another problem: what was pending belongs to the old one
+            String slug = snapshot.getProblemSlug();
+            if (slug != null && !slug.equals(tab.problemName)) {
+                tab.problemName = slug;
+                tab.pendingSubmission = null;
+            }
+            // First check for new submissions (code in editor), then check results
+            checkForNewSubmissions(tab, snapshot, codeChanged);
+            checkForSubmissionResults(tab, snapshot);
+        } else if (currentUrl.contains("/submissions/")) {
+            checkForSubmissionResultsOnSubmissionsPage(tab, snapshot);
+        }
+    }
+    
+    // ChromeDriver brings the tab to the front, so this is only used when the driver's own tab has
+    // been closed and WebDriver needs another one to work in
+    private void switchToTab(String handle) {
+        if (!handle.equals(currentHandle)) {
+            driver.switchTo().window(handle);
+            currentHandle = handle;
+        }
+    }
+    
+    // Pulls and normalises the editor code only when the page reports a new version
+    private boolean refreshEditorCode(TabState tab, PageSnapshot snapshot) {
+        if (!snapshot.isCodeIncluded()) {
+            return false;
+        }
+        
+        tab.codeVersion = snapshot.getCodeVersion();
+        String code = snapshot.hasCode() ? cleanExtractedCode(snapshot.getCode()) : null;
+        boolean changed = !Objects.equals(code, tab.editorCode);
+        tab.editorCode = code;
+        return changed;
+    }
+    
+    private AdaptivePollInterval.PageState classifyPage(PageSnapshot snapshot, boolean codeChanged) {
+        if (snapshot.isHidden() || !snapshot.getUrl().contains("leetcode.com")) {
+            return AdaptivePollInterval.PageState.IDLE;
+        }
+        
+        // A verdict is on its way: poll fast so it is picked up as soon as it renders
+        long sinceSubmit = snapshot.getMillisSinceSubmit();
+        String verdict = snapshot.getVerdict();
+        if ((sinceSubmit >= 0 && sinceSubmit < SUBMIT_WINDOW_MILLIS && !snapshot.isAccepted())
+                || "Pending".equals(verdict) || "Judging".equals(verdict)) {
+            return AdaptivePollInterval.PageState.SUBMITTING;
+        }
+        
+        if (snapshot.isProblemPage()) {
+            if (codeChanged || snapshot.getMillisSinceInput() < EDIT_WINDOW_MILLIS) {
+                return AdaptivePollInterval.PageState.EDITING;
+            }
+            if (snapshot.getMillisSinceInput() < AWAY_AFTER_MILLIS) {
+                return AdaptivePollInterval.PageState.VIEWING;
+            }
+        }
+        
+        return AdaptivePollInterval.PageState.IDLE;
+    }
+    
+    private boolean isDomMode() {
+        String mode = configManager.getDetectionMode();
+        return !"graphql".equalsIgnoreCase(mode) && !"cdp".equalsIgnoreCase(mode);
+    }
+    
+    private boolean isCdpMode() {
+        return "cdp".equalsIgnoreCase(configManager.getDetectionMode());
+    }
+    
+    private void attachCdpListener() {
+        if (cdpListener == null) {
+            cdpListener = new CdpSubmissionListener(this::offerCapturedSubmission);
+        }
+        cdpListener.attach(driver);
+    }
+    
+    // Called on the DevTools listener thread
+    private void offerCapturedSubmission(Submission submission) {
+        if (isProcessed(submission.getSubmissionId(), null)) {
+            logger.debug("Submission {} was already handled, skipping", submission.getSubmissionId());
+            return;
+        }
+        if (uploadQueue.enqueue(submission)) {
+            markProcessed(submission.getSubmissionId(), null);
+            logger.info("Queued submission for upload: {} ({} queued)", submission.getProblemName(), uploadQueue.getQueueDepth());
+        } else {
+            capturedBacklog.add(submission);
+            logger.warn("Upload queue full, keeping submission pending: {}", submission.getProblemName());
+        }
+    }
+    
+    private void retryCapturedSubmissions() {
+        Submission submission;
+        while ((submission = capturedBacklog.peek()) != null) {
+            if (!uploadQueue.enqueue(submission)) {
+                return;
             }
+            capturedBacklog.poll();
+            markProcessed(submission.getSubmissionId(), null);
+            logger.info("Queued pending submission for upload: {}", submission.getProblemName());
+        }
+    }
+    
+    // By submission ID when there is one, otherwise by withoutIdKey (null: never handled)
+    private boolean isProcessed(String submissionId, String withoutIdKey) {
+        long id = SubmissionIdIndex.parseId(submissionId);
+        if (id > 0) {
+            return processedSubmissions.contains(id);
+        }
+        return withoutIdKey != null && processedWithoutId.contains(withoutIdKey);
+    }
+    
+    private void markProcessed(String submissionId, String withoutIdKey) {
+        long id = SubmissionIdIndex.parseId(submissionId);
+        if (id > 0) {
+            processedSubmissions.add(id);
+        } else if (withoutIdKey != null) {
+            processedWithoutId.add(withoutIdKey);
         }
     }
     
     private void startMonitoring() {
+        if (isCdpMode()) {
+            // Attach before the first navigation so no request is missed
+            attachCdpListener();
+        }
         driver.get(LEETCODE_BASE_URL);
         logger.info("Navigated to LeetCode");
         isMonitoring.set(true);
+        
+        long browserMemory = BrowserMemoryProbe.measureBytes(driver);
+        if (browserMemory >= 0) {
+            logger.info("Chrome is using {} MB with LeetCode loaded (lean mode {})",
+                    browserMemory / (1024 * 1024), configManager.isLeanBrowserMode() ? "on" : "off");
+        }
     }
     
-    private boolean isOnLeetCodeProblemPage() {
-        String currentUrl = driver.getCurrentUrl();
-        return currentUrl.contains("/problems/") && !currentUrl.contains("/submissions/");
+    // Memory of this monitor's Chrome, or -1 when it is not running or cannot be measured
+    public long getBrowserMemoryBytes() {
+        WebDriver current = driver;
+        return current != null ? BrowserMemoryProbe.measureBytes(current) : -1;
     }
     
-    private boolean checkForSubmissionResultsOnSubmissionsPage() {
+    private boolean checkForSubmissionResultsOnSubmissionsPage(TabState tab, PageSnapshot snapshot) {
         try {
-            String problemName = extractProblemNameFromUrl(driver.getCurrentUrl());
+            String problemName = extractProblemNameFromUrl(snapshot.getUrl());
             
             // Check if we've already processed this submission
-            if (processedSubmissions.contains(problemName)) {
-                logger.debug("Already processed submission for: {}, skipping", problemName);
+            if (snapshot.getSubmissionId() != null && isProcessed(snapshot.getSubmissionId(), null)) {
+                logger.debug("Already processed submission {} for: {}, skipping", snapshot.getSubmissionId(), problemName);
                 // Still redirect to main problem page to avoid staying on submissions page
-                String mainProblemUrl = extractMainProblemUrl(driver.getCurrentUrl());
-                driver.get(mainProblemUrl);
+                returnToProblemPage(tab, snapshot);
                 return false;
             }
             
             // Look for accepted submissions
-            List<WebElement> acceptedSubmissions = driver.findElements(By.xpath("//span[contains(text(), 'Accepted')]"));
-            
-            if (!acceptedSubmissions.isEmpty()) {
+            if (snapshot.hasAcceptedLabel()) {
                 logger.info("Found accepted submission on submissions page for: {}", problemName);
                 
                 // Set current problem name for processing
-                currentProblemName = problemName;
+                tab.problemName = problemName;
                 
-                // Mark this submission as processed to avoid reprocessing
-                processedSubmissions.add(problemName);
-                
-                // Process the accepted submission
-                handleAcceptedSubmission();
+                // Process the accepted submission; it is marked as processed once queued
+                handleAcceptedSubmission(tab, snapshot);
                 
                 // Redirect to main problem page
-                String mainProblemUrl = extractMainProblemUrl(driver.getCurrentUrl());
-                driver.get(mainProblemUrl);
-                logger.info("Processed submission result, redirecting to main problem page: {}", mainProblemUrl);
+                returnToProblemPage(tab, snapshot);
                 return true;
             }
             
             // If no accepted submissions found, redirect to main problem page
-            String mainProblemUrl = extractMainProblemUrl(driver.getCurrentUrl());
-            driver.get(mainProblemUrl);
-            logger.info("Redirecting from submissions page to main problem page: {}", mainProblemUrl);
+            returnToProblemPage(tab, snapshot);
             
         } catch (Exception e) {
             logger.error("Error checking submission results on submissions page", e);
@@ -158,6 +565,16 @@ public class LeetCodeMonitorService {
         return false;
     }
     
+    // Only the monitor's own tab is navigated; a submissions page the user opened stays where it is
+    private void returnToProblemPage(TabState tab, PageSnapshot snapshot) {
+        if (!tab.handle.equals(homeHandle)) {
+            return;
+        }
+        String mainProblemUrl = extractMainProblemUrl(snapshot.getUrl());
+        driver.get(mainProblemUrl);
+        logger.info("Redirecting from submissions page to main problem page: {}", mainProblemUrl);
+    }
+    
     private String extractMainProblemUrl(String submissionsUrl) {
         // Convert submissions URL to main problem URL
         // Example: https://leetcode.com/submissions/detail/123456/ -> https://leetcode.com/problems/two-sum/
@@ -181,46 +598,34 @@ public class LeetCodeMonitorService {
         return "unknown";
     }
     
-    private String extractProblemName() {
-        try {
-            // Try to extract problem name from the page title or URL
-            String currentUrl = driver.getCurrentUrl();
-            if (currentUrl.contains("/problems/")) {
-                return extractProblemNameFromUrl(currentUrl);
-            }
-            
-            // Try to get from page title
-            String title = driver.getTitle();
-            if (title.contains(" - LeetCode")) {
-                return title.split(" - LeetCode")[0].trim();
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error extracting problem name", e);
+    private String extractProblemName(PageSnapshot snapshot) {
+        // Try to extract problem name from the page title or URL
+        if (snapshot.getProblemSlug() != null) {
+            return snapshot.getProblemSlug();
+        }
+        
+        // Try to get from page title
+        String title = snapshot.getTitle();
+        if (title != null && title.contains(" - LeetCode")) {
+            return title.split(" - LeetCode")[0].trim();
         }
         
         return "unknown";
     }
     
-    private void checkForSubmissionResults() {
+    private void checkForSubmissionResults(TabState tab, PageSnapshot snapshot) {
         try {
             // Check if we're on a problem page and look for submission results
-            String problemName = extractProblemName();
+            String problemName = extractProblemName(snapshot);
             
             if (!"unknown".equals(problemName)) {
-                currentProblemName = problemName;
+                tab.problemName = problemName;
                 logger.info("Detected problem: {}", problemName);
             }
             
             // Look for submission status indicators
-            List<WebElement> statusElements = driver.findElements(By.xpath("//div[contains(@class, 'status')]"));
-            
-            for (WebElement statusElement : statusElements) {
-                String status = statusElement.getText();
-                if ("Accepted".equals(status)) {
-                    handleAcceptedSubmission();
-                    break;
-                }
+            if (snapshot.isAccepted()) {
+                handleAcceptedSubmission(tab, snapshot);
             }
             
         } catch (Exception e) {
@@ -228,38 +633,36 @@ public class LeetCodeMonitorService {
         }
     }
     
-    private void checkForNewSubmissions() {
+    private void checkForNewSubmissions(TabState tab, PageSnapshot snapshot, boolean codeChanged) {
         try {
             // Only proceed if we have a valid problem name
-            if (currentProblemName == null || "unknown".equals(currentProblemName)) {
+            if (tab.problemName == null || "unknown".equals(tab.problemName)) {
                 return;
             }
             
-            // Check if we already have a pending submission for this problem
-            if (pendingSubmissions.containsKey(currentProblemName)) {
+            // Check if we already have a pending submission in this tab
+            if (tab.pendingSubmission != null) {
                 // Update existing submission with latest code
-                Submission existingSubmission = pendingSubmissions.get(currentProblemName);
-                String code = extractCodeFromEditor();
-                if (code != null && !code.trim().isEmpty()) {
-                    existingSubmission.setCode(cleanExtractedCode(code));
-                    logger.debug("Updated pending submission code for: {}", currentProblemName);
+                Submission existingSubmission = tab.pendingSubmission;
+                if (codeChanged && tab.editorCode != null && !tab.editorCode.isEmpty()) {
+                    existingSubmission.setCode(tab.editorCode);
+                    logger.debug("Updated pending submission code for: {}", tab.problemName);
                 }
                 return;
             }
             
             // Look for code in the editor
-            String code = extractCodeFromEditor();
-            
-            if (code != null && !code.trim().isEmpty()) {
+            if (tab.editorCode != null && !tab.editorCode.isEmpty()) {
                 // Create a new pending submission
                 Submission submission = new Submission();
-                submission.setProblemName(currentProblemName);
-                submission.setLanguage(detectProgrammingLanguage());
-                submission.setCode(cleanExtractedCode(code));
+                submission.setProblemName(tab.problemName);
+                submission.setLanguage(mapLanguageName(snapshot.getLanguage()));
+                submission.setDifficulty(snapshot.getDifficulty());
+                submission.setCode(tab.editorCode);
                 submission.setStatus("Pending");
                 
-                pendingSubmissions.put(currentProblemName, submission);
-                logger.info("Created pending submission for: {}", currentProblemName);
+                tab.pendingSubmission = submission;
+                logger.info("Created pending submission for: {}", tab.problemName);
             }
             
         } catch (Exception e) {
@@ -267,175 +670,79 @@ public class LeetCodeMonitorService {
         }
     }
     
-    private void handleAcceptedSubmission() {
+    private void handleAcceptedSubmission(TabState tab, PageSnapshot snapshot) {
         try {
-            if (currentProblemName == null || "unknown".equals(currentProblemName)) {
+            if (tab.problemName == null || "unknown".equals(tab.problemName)) {
                 logger.warn("Cannot handle accepted submission: no valid problem name");
                 return;
             }
             
-            logger.info("Handling accepted submission for: {}", currentProblemName);
+            logger.info("Handling accepted submission for: {}", tab.problemName);
             
             Submission submission;
             
-            if (pendingSubmissions.containsKey(currentProblemName)) {
+            if (tab.pendingSubmission != null) {
                 // Use existing pending submission
-                submission = pendingSubmissions.get(currentProblemName);
+                submission = tab.pendingSubmission;
                 submission.setStatus("Accepted");
-                logger.info("Processing existing pending submission for: {}", currentProblemName);
+                logger.info("Processing existing pending submission for: {}", tab.problemName);
             } else {
                 // Create a new submission from current editor state
-                String code = extractCodeFromEditor();
-                if (code == null || code.trim().isEmpty()) {
-                    logger.warn("No code found in editor for accepted submission: {}", currentProblemName);
+                if (tab.editorCode == null || tab.editorCode.isEmpty()) {
+                    logger.warn("No code found in editor for accepted submission: {}", tab.problemName);
                     return;
                 }
                 
                 submission = new Submission();
-                submission.setProblemName(currentProblemName);
-                submission.setLanguage(detectProgrammingLanguage());
-                submission.setCode(cleanExtractedCode(code));
+                submission.setProblemName(tab.problemName);
+                submission.setLanguage(mapLanguageName(snapshot.getLanguage()));
+                submission.setDifficulty(snapshot.getDifficulty());
+                submission.setCode(tab.editorCode);
                 submission.setStatus("Accepted");
-                logger.info("Created new submission from editor for: {}", currentProblemName);
-            }
-            
-            logger.info("About to upload submission to GitHub: {}", submission.getProblemName());
-            
-            // Upload to GitHub
-            boolean success = githubService.uploadSubmission(submission);
-            
-            if (success) {
-                pendingSubmissions.remove(currentProblemName);
-                processedSubmissions.add(currentProblemName);
-                logger.info("Successfully processed and uploaded submission for: {}", currentProblemName);
-            } else {
-                logger.error("Failed to upload submission for: {}", currentProblemName);
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error handling accepted submission", e);
-        }
-    }
-    
-    private String extractCodeFromEditor() {
-        try {
-            // Try multiple selectors for LeetCode's code editor
-            // Modern LeetCode uses Monaco editor
-            List<WebElement> monacoElements = driver.findElements(By.xpath("//div[contains(@class, 'monaco-editor')]//textarea"));
-            if (!monacoElements.isEmpty()) {
-                String code = monacoElements.get(0).getAttribute("value");
-                if (code != null && !code.trim().isEmpty()) {
-                    logger.debug("Extracted code from Monaco editor");
-                    return code;
-                }
+                logger.info("Created new submission from editor for: {}", tab.problemName);
             }
             
-            // Try Monaco editor with different selector
-            List<WebElement> monacoTextareas = driver.findElements(By.xpath("//textarea[@data-cy='code-editor']"));
-            if (!monacoTextareas.isEmpty()) {
-                String code = monacoTextareas.get(0).getAttribute("value");
-                if (code != null && !code.trim().isEmpty()) {
-                    logger.debug("Extracted code from Monaco editor (data-cy selector)");
-                    return code;
-                }
-            }
-            
-            // Try CodeMirror (older LeetCode editor)
-            List<WebElement> codeMirrorElements = driver.findElements(By.xpath("//pre[@class='CodeMirror-line']"));
-            if (!codeMirrorElements.isEmpty()) {
-                StringBuilder code = new StringBuilder();
-                for (WebElement element : codeMirrorElements) {
-                    code.append(element.getText()).append("\n");
-                }
-                String result = code.toString().trim();
-                if (!result.isEmpty()) {
-                    logger.debug("Extracted code from CodeMirror editor");
-                    return result;
-                }
-            }
-            
-            // Try Ace editor
-            List<WebElement> aceElements = driver.findElements(By.xpath("//div[@class='ace_editor']//textarea"));
-            if (!aceElements.isEmpty()) {
-                String code = aceElements.get(0).getAttribute("value");
-                if (code != null && !code.trim().isEmpty()) {
-                    logger.debug("Extracted code from Ace editor");
-                    return code;
-                }
+            // The verdict stays on screen for many ticks; without an ID in the URL the same problem,
+            // language and code count as the same submission
+            submission.setSubmissionId(snapshot.getSubmissionId());
+            String withoutIdKey = tab.problemName + "/" + submission.getLanguage() + "/" + Objects.hashCode(submission.getCode());
+            if (isProcessed(submission.getSubmissionId(), withoutIdKey)) {
+                tab.pendingSubmission = null;
+                logger.debug("Accepted submission for {} was already handled, skipping", tab.problemName);
+                return;
             }
-            
-            // Try generic code editor selectors
-            List<WebElement> genericElements = driver.findElements(By.xpath("//div[contains(@class, 'editor')]//textarea"));
-            if (!genericElements.isEmpty()) {
-                String code = genericElements.get(0).getAttribute("value");
-                if (code != null && !code.trim().isEmpty()) {
-                    logger.debug("Extracted code from generic editor");
-                    return code;
-                }
+            if (submission.getLanguage() == null) {
+                // Marked processed so the verdict still on screen is not reported every tick
+                tab.pendingSubmission = null;
+                markProcessed(submission.getSubmissionId(), withoutIdKey);
+                logger.warn("Skipping accepted submission for {}: unsupported language {}", tab.problemName, snapshot.getLanguage());
+                return;
             }
             
-            logger.debug("No code found in editor with any selector");
-            
-        } catch (Exception e) {
-            logger.error("Error extracting code from editor", e);
-        }
-        
-        return null;
-    }
-    
-    private void extractCodeFromSubmissionPage() {
-        try {
-            // Navigate to submissions page to extract code
-            String submissionsUrl = driver.getCurrentUrl().replace("/problems/", "/submissions/");
-            driver.get(submissionsUrl);
-            
-            // Extract code from submission page
-            String code = extractCodeFromEditor();
-            if (code != null) {
-                // Process the extracted code
-                logger.info("Extracted code from submission page");
+            // Hand off to the upload workers; a full queue leaves the submission pending for the next tick
+            if (uploadQueue.enqueue(submission)) {
+                tab.pendingSubmission = null;
+                markProcessed(submission.getSubmissionId(), withoutIdKey);
+                logger.info("Queued submission for upload: {} ({} queued)", tab.problemName, uploadQueue.getQueueDepth());
+            } else {
+                tab.pendingSubmission = submission;
+                logger.warn("Upload queue full, keeping submission pending: {}", tab.problemName);
             }
             
         } catch (Exception e) {
-            logger.error("Error extracting code from submission page", e);
+            logger.error("Error handling accepted submission", e);
         }
     }
     
-    private String cleanExtractedCode(String code) {
+    static String cleanExtractedCode(String code) {
         if (code == null) return "";
         
         // Remove extra whitespace and normalize line endings
         return code.trim().replaceAll("\r\n", "\n");
     }
     
-    private String detectProgrammingLanguageFromPage() {
-        try {
-            // Look for language indicators on the page
-            List<WebElement> languageElements = driver.findElements(By.xpath("//select[@data-cy='lang-select']//option[@selected]"));
-            
-            if (!languageElements.isEmpty()) {
-                return languageElements.get(0).getText();
-            }
-            
-            // Alternative selectors
-            List<WebElement> langElements = driver.findElements(By.xpath("//div[contains(@class, 'language')]"));
-            if (!langElements.isEmpty()) {
-                return langElements.get(0).getText();
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error detecting programming language from page", e);
-        }
-        
-        return "java"; // Default fallback
-    }
-    
-    private String detectProgrammingLanguage() {
-        String detectedLang = detectProgrammingLanguageFromPage();
-        return mapLanguageName(detectedLang);
-    }
-    
-    private String mapLanguageName(String language) {
+    // A missing name keeps the old Java default (the DOM page does not always show the picker)
+    static String mapLanguageName(String language) {
         if (language == null) return "java";
         
         String lang = language.toLowerCase();
@@ -476,21 +783,96 @@ public class LeetCodeMonitorService {
                 return "scala";
             case "dart":
                 return "dart";
+            case "elixir":
+                return "elixir";
+            case "erlang":
+                return "erlang";
+            case "racket":
+                return "racket";
+            case "bash":
+                return "bash";
+            case "pythondata":
+            case "pandas":
+                return "pandas";
+            // Each database has its own dialect and LeetCode accepts one solution per dialect
+            case "mysql":
+                return "mysql";
+            case "mssql":
+            case "ms sql server":
+                return "mssql";
+            case "oraclesql":
+            case "oracle":
+                return "oraclesql";
+            case "postgresql":
+                return "postgresql";
             default:
-                return "java";
+                // Unknown to the uploader; callers skip it rather than file it under the wrong language
+                return null;
+        }
+    }
+    
+    // Opens LeetCode in the browser and waits for the user to log in; returns the session cookies
+    public Set<Cookie> waitForLogin() throws InterruptedException {
+        if (driver == null) {
+            // Only a login is needed here, so no standby is started
+            driver = browserSessions.launch();
+            driver.get(LEETCODE_BASE_URL + "/accounts/login/");
         }
+        
+        long deadline = System.currentTimeMillis() + configManager.getLoginTimeoutSeconds() * 1000L;
+        while (System.currentTimeMillis() < deadline) {
+            Set<Cookie> cookies = driver.manage().getCookies();
+            for (Cookie cookie : cookies) {
+                if ("LEETCODE_SESSION".equals(cookie.getName())) {
+                    return cookies;
+                }
+            }
+            Thread.sleep(2000);
+        }
+        throw new IllegalStateException("Not logged in to LeetCode after " + configManager.getLoginTimeoutSeconds() + " seconds");
     }
     
     public void shutdown() {
         try {
             isMonitoring.set(false);
+            if (cdpListener != null) {
+                cdpListener.detach();
+            }
             if (driver != null) {
                 driver.quit();
                 driver = null;
             }
+            browserSessions.shutdown();
+            processedSubmissions.close();
             logger.info("LeetCodeMonitorService shutdown complete");
         } catch (Exception e) {
             logger.error("Error during shutdown", e);
         }
     }
-} 
\ No newline at end of file
+    
+    // What the monitor knows about one browser tab. Written only by the thread running the check;
+    // volatile so getNextCheckDelayMillis and later checks on other pool threads see it.
+    private static final class DetailRetry {
+        private int failures;
+        private long notBefore;
+    }
+    
+    private static final class TabState {
+        private final String handle;
+        private volatile String problemName;
+        private volatile Submission pendingSubmission;
+        private volatile String codeVersion; // editor version the cached code below was read at
+        private volatile String editorCode; // normalised editor contents, refreshed only when the version advances
+        private volatile AdaptivePollInterval.PageState pageState;
+        
+        private TabState(String handle) {
+            this.handle = handle;
+            this.pageState = AdaptivePollInterval.PageState.VIEWING;
+        }
+        
+        private boolean isHot() {
+            return pendingSubmission != null || pageState == AdaptivePollInterval.PageState.SUBMITTING
+                    || pageState == AdaptivePollInterval.PageState.EDITING;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.Submission;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.PullResult;
+import org.eclipse.jgit.api.RebaseCommand;
+import org.eclipse.jgit.api.RebaseResult;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.BranchTrackingStatus;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Writes solutions into a local clone and commits immediately; pushes happen on a timer
+// or once enough commits have piled up, so a slow network never blocks an upload.
+public class LocalGitRepositoryService implements SubmissionUploader {
+    private static final Logger logger = LoggerFactory.getLogger(LocalGitRepositoryService.class);
+
+    private final ConfigurationManager configManager;
+    private final ScheduledExecutorService pushScheduler;
+    private final Object pushLock;
+    private final AtomicInteger unpushedCommits;
+    private Git git;
+    private SolutionIndex solutionIndex;
+
+    public LocalGitRepositoryService(ConfigurationManager configManager) {
+        this.configManager = configManager;
+        this.pushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "git-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pushLock = new Object();
+        this.unpushedCommits = new AtomicInteger();
+    }
+
+    public void initialize() throws GitAPIException, IOException {
+        File workTree = configManager.getLocalGitDirectory().toFile();
+
+        if (new File(workTree, ".git").exists()) {
+            git = Git.open(workTree);
+            logger.info("Opened local repository at {}", workTree.getAbsolutePath());
+        } else {
+            logger.info("Cloning {} into {}", configManager.getLocalGitRemoteUrl(), workTree.getAbsolutePath());
+            git = Git.cloneRepository()
+                    .setURI(configManager.getLocalGitRemoteUrl())
+                    .setDirectory(workTree)
+                    .setBranch(configManager.getGitHubBranch())
+                    .setCredentialsProvider(credentials())
+                    .call();
+        }
+
+        // Commits made before a restart that never reached the remote
+        BranchTrackingStatus tracking = BranchTrackingStatus.of(git.getRepository(), configManager.getGitHubBranch());
+        unpushedCommits.set(tracking != null ? tracking.getAheadCount() : 0);
+        if (unpushedCommits.get() > 0) {
+            logger.info("{} local commits have not been pushed yet", unpushedCommits.get());
+        }
+
+        int interval = configManager.getLocalGitPushIntervalSeconds();
+        pushScheduler.scheduleWithFixedDelay(this::pushIfNeeded, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Seeds the index from the manifest in the working tree when there is no local copy yet
+    public void setSolutionIndex(SolutionIndex solutionIndex) {
+        this.solutionIndex = solutionIndex;
+        if (solutionIndex.load()) {
+            return;
+        }
+
+        Path manifest = git.getRepository().getWorkTree().toPath().resolve(solutionIndex.getManifestPath());
+        try {
+            if (Files.exists(manifest)) {
+                solutionIndex.seed(Files.readString(manifest));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read solutions manifest {}", manifest, e);
+        }
+    }
+
+    @Override
+    public boolean uploadSubmission(Submission submission) {
+        return uploadSubmissions(List.of(submission));
+    }
+
+    @Override
+    public synchronized boolean uploadSubmissions(List<Submission> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            return true;
+        }
+
+        Map<String, Submission> filesByPath = new LinkedHashMap<>();
+        for (Submission submission : submissions) {
+            filesByPath.put(GitHubService.buildFilePath(submission), submission);
+        }
+
+        try {
+            Path workTree = git.getRepository().getWorkTree().toPath();
+            for (Map.Entry<String, Submission> file : filesByPath.entrySet()) {
+                Path target = workTree.resolve(file.getKey());
+                Files.createDirectories(target.getParent());
+                Files.write(target, file.getValue().getCode().getBytes(StandardCharsets.UTF_8));
+                git.add().addFilepattern(file.getKey()).call();
+            }
+
+            if (git.status().call().getUncommittedChanges().isEmpty()) {
+                logger.info("Skipping commit, {} solutions are unchanged", filesByPath.size());
+                return true;
+            }
+
+            List<Submission> changed = new ArrayList<>(filesByPath.values());
+            if (solutionIndex != null) {
+                for (Map.Entry<String, String> indexFile : solutionIndex.render(changed).entrySet()) {
+                    Path target = workTree.resolve(indexFile.getKey());
+                    Files.createDirectories(target.getParent());
+                    Files.writeString(target, indexFile.getValue());
+                    git.add().addFilepattern(indexFile.getKey()).call();
+                }
+            }
+
+            git.commit()
+                    .setMessage(buildCommitMessage(filesByPath.values()))
+                    .call();
+            int waiting = unpushedCommits.incrementAndGet();
+            if (solutionIndex != null) {
+                solutionIndex.apply(changed);
+            }
+
+            logger.info("Committed {} solutions locally ({} commits waiting to push)", filesByPath.size(), waiting);
+            System.out.println("✅ Committed locally: " + filesByPath.size() + " solutions");
+
+        } catch (Exception e) {
+            logger.error("Error committing solutions to local repository", e);
+            System.out.println("❌ Error committing locally: " + e.getMessage());
+            return false;
+        }
+
+        if (unpushedCommits.get() >= configManager.getLocalGitPushBatchSize()) {
+            pushScheduler.execute(this::pushIfNeeded);
+        }
+        return true;
+    }
+
+    private String buildCommitMessage(Iterable<Submission> submissions) {
+        List<String> lines = new ArrayList<>();
+        Submission first = null;
+        for (Submission submission : submissions) {
+            if (first == null) {
+                first = submission;
+            }
+            lines.add("- " + submission.getLanguage() + " solution for " + submission.getProblemName());
+        }
+
+        if (lines.size() == 1) {
+            return "feat: add " + first.getLanguage() + " solution for " + first.getProblemName();
+        }
+        return "feat: add " + lines.size() + " solutions\n\n" + String.join("\n", lines);
+    }
+
+    // Runs outside the commit lock so local commits keep flowing while a push is slow
+    public boolean pushIfNeeded() {
+        synchronized (pushLock) {
+            if (git == null || unpushedCommits.get() == 0) {
+                return true;
+            }
+
+            try {
+                if (push()) {
+                    return true;
+                }
+
+                // Someone else moved the branch: replay our commits on top and try once more
+                logger.info("Push rejected, rebasing on {}", configManager.getGitHubBranch());
+                synchronized (this) {
+                    if (!rebaseOnRemote()) {
+                        return false;
+                    }
+                }
+                return push();
+
+            } catch (Exception e) {
+                logger.warn("Push failed, {} commits will be retried later: {}", unpushedCommits.get(), e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    // A conflicting rebase (README.md and solutions.json are touched by every commit) would leave
+    // the clone mid-rebase and fail every later commit, so it is aborted and the clone stays as it was
+    private boolean rebaseOnRemote() throws GitAPIException {
+        PullResult pull = git.pull().setRebase(true).setCredentialsProvider(credentials()).call();
+        RebaseResult rebase = pull.getRebaseResult();
+        if (pull.isSuccessful() && (rebase == null || rebase.getStatus().isSuccessful())) {
+            return true;
+        }
+
+        if (git.getRepository().getRepositoryState().isRebasing()) {
+            git.rebase().setOperation(RebaseCommand.Operation.ABORT).call();
+        }
+        logger.error("Could not rebase {} unpushed commits onto {} ({}{}); resolve it in {} and they will be pushed",
+                unpushedCommits.get(),
+                configManager.getGitHubBranch(),
+                rebase != null ? rebase.getStatus() : "fetch failed",
+                rebase != null && rebase.getConflicts() != null ? ", conflicts in " + rebase.getConflicts() : "",
+                git.getRepository().getWorkTree());
+        System.out.println("❌ Local commits conflict with " + configManager.getGitHubBranch() + ", push needs manual resolution");
+        return false;
+    }
+
+    private boolean push() throws GitAPIException {
+        int pushing = unpushedCommits.get();
+        Iterable<PushResult> results = git.push()
+                .setRemote("origin")
+                .add(configManager.getGitHubBranch())
+                .setCredentialsProvider(credentials())
+                .call();
+
+        for (PushResult result : results) {
+            for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+                if (update.getStatus() != RemoteRefUpdate.Status.OK && update.getStatus() != RemoteRefUpdate.Status.UP_TO_DATE) {
+                    logger.debug("Push of {} returned {}", update.getRemoteName(), update.getStatus());
+                    return false;
+                }
+            }
+        }
+
+        logger.info("Pushed {} commits to {}", pushing, configManager.getLocalGitRemoteUrl());
+        unpushedCommits.addAndGet(-pushing);
+        return true;
+    }
+
+    private CredentialsProvider credentials() {
+        return new UsernamePasswordCredentialsProvider("x-access-token", configManager.getGitHubToken());
+    }
+
+    @Override
+    public void shutdown() {
+        pushScheduler.shutdown();
+        try {
+            pushScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        pushIfNeeded();
+        if (git != null) {
+            git.close();
+        }
+    }
+}
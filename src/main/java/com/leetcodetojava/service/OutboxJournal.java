@@ -0,0 +1,216 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Append-only, fsync'd log of accepted submissions that have not been uploaded yet.
+// Each line is either {"op":"add","id":..,"submission":{..}} or {"op":"done","id":..}.
+// Pending entries are held in memory as CompactSubmission; the file keeps the plain JSON form.
+public class OutboxJournal {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxJournal.class);
+
+    private final Path journalFile;
+    private final int compactThreshold;
+    private final int deflateThreshold;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, CompactSubmission> pending;
+    private long pendingHeapBytes;
+    private FileChannel channel;
+    private long nextId;
+    private int doneSinceCompaction;
+
+    public OutboxJournal(Path journalFile, int compactThreshold, int deflateThreshold) {
+        this.journalFile = journalFile;
+        this.compactThreshold = compactThreshold;
+        this.deflateThreshold = deflateThreshold;
+        this.objectMapper = new ObjectMapper();
+        this.pending = new LinkedHashMap<>();
+        this.nextId = 1;
+    }
+
+    public synchronized void open() throws IOException {
+        Files.createDirectories(journalFile.getParent());
+
+        if (Files.exists(journalFile)) {
+            replay();
+        }
+
+        // Rewrite on every start so recovery only ever reads live entries plus recent churn
+        compact();
+        if (pending.isEmpty()) {
+            logger.info("Outbox journal opened with no pending submissions");
+        } else {
+            logger.info("Outbox journal opened with {} pending submissions, {} KB in memory (~{} bytes each)",
+                    pending.size(), pendingHeapBytes / 1024, pendingHeapBytes / pending.size());
+        }
+    }
+
+    private void replay() throws IOException {
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonNode record;
+                try {
+                    record = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    // A torn final write after a crash; everything before it is intact
+                    logger.warn("Ignoring unreadable outbox record at line {}", lineNumber);
+                    continue;
+                }
+
+                long id = record.path("id").asLong();
+                nextId = Math.max(nextId, id + 1);
+
+                if ("add".equals(record.path("op").asText())) {
+                    Submission submission = objectMapper.treeToValue(record.get("submission"), Submission.class);
+                    put(id, CompactSubmission.of(submission, deflateThreshold));
+                } else {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    public synchronized long append(CompactSubmission submission) throws IOException {
+        long id = nextId++;
+
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", "add");
+        record.put("id", id);
+        record.set("submission", toJson(submission));
+        write(record);
+
+        put(id, submission);
+        return id;
+    }
+
+    public synchronized void markDone(long id) throws IOException {
+        if (!remove(id)) {
+            return;
+        }
+
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", "done");
+        record.put("id", id);
+        write(record);
+
+        doneSinceCompaction++;
+        if (doneSinceCompaction >= compactThreshold) {
+            compact();
+        }
+    }
+
+    public synchronized Map<Long, CompactSubmission> getPending() {
+        return new LinkedHashMap<>(pending);
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    // Estimated heap held by the pending entries; the upload queue shares the same instances
+    public synchronized long getPendingHeapBytes() {
+        return pendingHeapBytes;
+    }
+
+    private void put(long id, CompactSubmission submission) {
+        CompactSubmission previous = pending.put(id, submission);
+        if (previous != null) {
+            pendingHeapBytes -= previous.estimateHeapBytes();
+        }
+        pendingHeapBytes += submission.estimateHeapBytes();
+    }
+
+    private boolean remove(long id) {
+        CompactSubmission removed = pending.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        pendingHeapBytes -= removed.estimateHeapBytes();
+        return true;
+    }
+
+    // The same fields Jackson writes for a Submission, so replay reads old and new records alike
+    private ObjectNode toJson(CompactSubmission submission) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("problemName", submission.getProblemName());
+        json.put("language", submission.getLanguage());
+        json.put("code", submission.getCode());
+        json.put("submissionId", submission.getSubmissionId());
+        json.put("status", submission.getStatusLabel());
+        json.put("difficulty", submission.getDifficulty());
+        json.put("timestamp", submission.getTimestamp());
+        return json;
+    }
+
+    private void write(JsonNode record) throws IOException {
+        writeLine(channel, record);
+        channel.force(false);
+    }
+
+    private void writeLine(FileChannel target, JsonNode record) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private void compact() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+
+        Path tempFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<Long, CompactSubmission> entry : pending.entrySet()) {
+                ObjectNode record = objectMapper.createObjectNode();
+                record.put("op", "add");
+                record.put("id", entry.getKey());
+                record.set("submission", toJson(entry.getValue()));
+                writeLine(out, record);
+            }
+            out.force(true);
+        }
+        Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        doneSinceCompaction = 0;
+        logger.debug("Compacted outbox journal to {} entries", pending.size());
+    }
+
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close outbox journal", e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.leetcodetojava.service;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Everything the monitor reads from the current LeetCode page, collected by one injected script
+// instead of a WebDriver round trip per URL, selector and attribute
+public class PageSnapshot {
+    private static final String SCRIPT = loadScript("/scripts/page-snapshot.js");
+
+    private final String url;
+    private final String title;
+    private final String problemSlug;
+    private final String submissionId;
+    private final String language;
+    private final String code;
+    private final String codeSource;
+    private final String codeVersion;
+    private final boolean codeIncluded;
+    private final String verdict;
+    private final boolean acceptedLabel;
+    private final String difficulty;
+    private final boolean hidden;
+    private final long millisSinceInput;
+    private final long millisSinceSubmit;
+
+    private PageSnapshot(Map<?, ?> values, String knownCodeVersion) {
+        this.url = stringValue(values, "url");
+        this.title = stringValue(values, "title");
+        this.problemSlug = stringValue(values, "slug");
+        this.submissionId = stringValue(values, "submissionId");
+        this.language = stringValue(values, "language");
+        this.code = stringValue(values, "code");
+        this.codeSource = stringValue(values, "codeSource");
+        this.codeVersion = stringValue(values, "codeVersion");
+        this.codeIncluded = codeVersion == null || !codeVersion.equals(knownCodeVersion);
+        this.verdict = stringValue(values, "verdict");
+        this.acceptedLabel = Boolean.TRUE.equals(values.get("acceptedLabel"));
+        this.difficulty = stringValue(values, "difficulty");
+        this.hidden = Boolean.TRUE.equals(values.get("hidden"));
+        this.millisSinceInput = longValue(values, "msSinceInput");
+        this.millisSinceSubmit = longValue(values, "msSinceSubmit");
+    }
+
+    // The code is left out when the editor is still at knownCodeVersion (null forces it to be read)
+    public static PageSnapshot capture(WebDriver driver, String knownCodeVersion) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, knownCodeVersion);
+        if (!(result instanceof Map)) {
+            throw new IllegalStateException("Page snapshot script returned " + result);
+        }
+        return new PageSnapshot((Map<?, ?>) result, knownCodeVersion);
+    }
+
+    // The same snapshot of a tab the driver is not switched to, run through a DevTools session on
+    // that tab's target. switchTo().window() would bring the tab to the front; this does not.
+    public static PageSnapshot capture(DevTools devTools, String windowHandle, String knownCodeVersion) {
+        // executeScript runs the script as a function body with the arguments passed in
+        String expression = "(function() {\n" + SCRIPT + "\n}).apply(null, [" + new Json().toJson(knownCodeVersion) + "])";
+        devTools.createSession(windowHandle);
+        try {
+            Map<String, Object> response = devTools.send(new Command<Map<String, Object>>("Runtime.evaluate",
+                    Map.of("expression", expression, "returnByValue", true), Json.MAP_TYPE));
+            if (response.get("exceptionDetails") != null) {
+                throw new JavascriptException("Page snapshot script failed: " + response.get("exceptionDetails"));
+            }
+            Object result = response.get("result") instanceof Map ? ((Map<?, ?>) response.get("result")).get("value") : null;
+            if (!(result instanceof Map)) {
+                throw new IllegalStateException("Page snapshot script returned " + result);
+            }
+            return new PageSnapshot((Map<?, ?>) result, knownCodeVersion);
+        } finally {
+            devTools.disconnectSession();
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    // Null when the URL is not under /problems/
+    public String getProblemSlug() {
+        return problemSlug;
+    }
+
+    // Null unless the URL names a submission
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    // Null when the page could not hook the editor; the code is then included every time
+    public String getCodeVersion() {
+        return codeVersion;
+    }
+
+    // False when the editor has not changed since the version passed to capture()
+    public boolean isCodeIncluded() {
+        return codeIncluded;
+    }
+
+    public boolean hasCode() {
+        return code != null && !code.trim().isEmpty();
+    }
+
+    public String getCodeSource() {
+        return codeSource;
+    }
+
+    public String getVerdict() {
+        return verdict;
+    }
+
+    public boolean isAccepted() {
+        return "Accepted".equals(verdict);
+    }
+
+    // An "Accepted" label anywhere on the page, as shown in submission lists
+    public boolean hasAcceptedLabel() {
+        return acceptedLabel;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    // The tab is in the background or the window is minimised
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    // Since the user last typed or clicked, or since the script was first injected into this page
+    public long getMillisSinceInput() {
+        return millisSinceInput;
+    }
+
+    // -1 until the user has clicked Submit (or pressed Ctrl+Enter) on this page
+    public long getMillisSinceSubmit() {
+        return millisSinceSubmit;
+    }
+
+    public boolean isProblemPage() {
+        return url.contains("/problems/") && !url.contains("/submissions/");
+    }
+
+    private static String stringValue(Map<?, ?> values, String key) {
+        Object value = values.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static long longValue(Map<?, ?> values, String key) {
+        Object value = values.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : -1;
+    }
+
+    private static String loadScript(String resource) {
+        try (InputStream in = PageSnapshot.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Audits the target repo against the local archive with one recursive tree listing
+// and re-uploads whatever is missing or stale
+public class RepositorySyncService {
+    private static final Logger logger = LoggerFactory.getLogger(RepositorySyncService.class);
+
+    private final GitHubService githubService;
+    private final SubmissionArchive archive;
+    private final ConfigurationManager configManager;
+
+    public RepositorySyncService(GitHubService githubService, SubmissionArchive archive) {
+        this.githubService = githubService;
+        this.archive = archive;
+        this.configManager = githubService.getConfigManager();
+    }
+
+    public SyncReport sync() throws Exception {
+        Map<String, String> remote = githubService.fetchRepositoryTree();
+        List<String> localPaths = archive.listPaths();
+        logger.info("Comparing {} archived solutions with {} files in the repository", localPaths.size(), remote.size());
+
+        SyncReport report = new SyncReport();
+        List<Submission> outOfSync = new ArrayList<>();
+
+        for (String path : localPaths) {
+            String remoteSha = remote.get(path);
+            String localSha = GitBlobHasher.blobSha(archive.read(path));
+
+            if (remoteSha == null) {
+                report.missing++;
+            } else if (!remoteSha.equals(localSha)) {
+                report.stale++;
+            } else {
+                report.inSync++;
+                continue;
+            }
+
+            logger.info("{} is {} in the repository", path, remoteSha == null ? "missing" : "stale");
+            outOfSync.add(archive.load(path));
+        }
+
+        upload(outOfSync, report);
+
+        logger.info("Sync finished: {} in sync, {} missing, {} stale, {} uploaded, {} failed",
+                report.inSync, report.missing, report.stale, report.uploaded, report.failed);
+        return report;
+    }
+
+    private void upload(List<Submission> submissions, SyncReport report) {
+        if (!configManager.isBatchCommitEnabled()) {
+            for (Submission submission : submissions) {
+                if (githubService.uploadSubmission(submission)) {
+                    report.uploaded++;
+                } else {
+                    report.failed++;
+                }
+            }
+            return;
+        }
+
+        int batchSize = Math.max(1, configManager.getBatchSize());
+        for (int start = 0; start < submissions.size(); start += batchSize) {
+            List<Submission> batch = submissions.subList(start, Math.min(start + batchSize, submissions.size()));
+            if (githubService.uploadSubmissions(batch)) {
+                report.uploaded += batch.size();
+            } else {
+                report.failed += batch.size();
+            }
+        }
+    }
+
+    public static class SyncReport {
+        private int inSync;
+        private int missing;
+        private int stale;
+        private int uploaded;
+        private int failed;
+
+        public int getInSync() {
+            return inSync;
+        }
+
+        public int getMissing() {
+            return missing;
+        }
+
+        public int getStale() {
+            return stale;
+        }
+
+        public int getUploaded() {
+            return uploaded;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+    }
+}
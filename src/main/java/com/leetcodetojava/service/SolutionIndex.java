@@ -0,0 +1,220 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// In-memory model of every solution in the target repo, rendered into a README table and a
+// JSON manifest that are committed alongside each solution. Updated per commit, never by listing the repo.
+public class SolutionIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SolutionIndex.class);
+    private static final String UNKNOWN_DIFFICULTY = "Unknown";
+
+    private final Path localManifest;
+    private final String readmePath;
+    private final String manifestPath;
+    private final ObjectMapper objectMapper;
+    private final TreeMap<String, Entry> entries;
+    private final Map<String, Integer> languageCounts;
+    private final Map<String, Integer> difficultyCounts;
+
+    public SolutionIndex(Path localManifest, String readmePath, String manifestPath) {
+        this.localManifest = localManifest;
+        this.readmePath = readmePath;
+        this.manifestPath = manifestPath;
+        this.objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        this.entries = new TreeMap<>();
+        this.languageCounts = new TreeMap<>();
+        this.difficultyCounts = new TreeMap<>();
+    }
+
+    // Returns false when there is no local copy yet and the caller should seed it from the repo
+    public synchronized boolean load() {
+        if (!Files.exists(localManifest)) {
+            return false;
+        }
+
+        try {
+            loadManifest(objectMapper.readTree(localManifest.toFile()));
+            logger.info("Loaded solutions index with {} entries", entries.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to read solutions index {}", localManifest, e);
+            return false;
+        }
+    }
+
+    public synchronized void seed(String manifestJson) {
+        try {
+            loadManifest(objectMapper.readTree(manifestJson));
+            save();
+            logger.info("Seeded solutions index with {} entries from the repository", entries.size());
+        } catch (Exception e) {
+            logger.warn("Failed to seed solutions index from repository manifest", e);
+        }
+    }
+
+    private void loadManifest(JsonNode manifest) {
+        entries.clear();
+        languageCounts.clear();
+        difficultyCounts.clear();
+        for (JsonNode node : manifest.path("solutions")) {
+            Entry entry = objectMapper.convertValue(node, Entry.class);
+            add(entry);
+        }
+    }
+
+    // Files (path -> content) to commit together with the given solutions. The model itself only
+    // changes once the commit has succeeded, via apply(); callers hold their commit lock across
+    // render, commit and apply so concurrent batches never render without each other's entries.
+    public synchronized Map<String, String> render(List<Submission> submissions) {
+        TreeMap<String, Entry> updated = new TreeMap<>(entries);
+        Map<String, Integer> languages = new TreeMap<>(languageCounts);
+        Map<String, Integer> difficulties = new TreeMap<>(difficultyCounts);
+        for (Submission submission : submissions) {
+            Entry entry = toEntry(submission);
+            Entry previous = updated.put(entry.path, entry);
+            if (previous != null) {
+                languages.merge(previous.language, -1, Integer::sum);
+                difficulties.merge(previous.difficulty, -1, Integer::sum);
+            }
+            languages.merge(entry.language, 1, Integer::sum);
+            difficulties.merge(entry.difficulty, 1, Integer::sum);
+        }
+        languages.values().removeIf(count -> count <= 0);
+        difficulties.values().removeIf(count -> count <= 0);
+
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put(readmePath, renderReadme(updated, languages, difficulties));
+        files.put(manifestPath, renderManifest(updated, languages, difficulties));
+        return files;
+    }
+
+    public synchronized void apply(List<Submission> submissions) {
+        for (Submission submission : submissions) {
+            add(toEntry(submission));
+        }
+        save();
+    }
+
+    private void add(Entry entry) {
+        Entry previous = entries.put(entry.path, entry);
+        if (previous != null) {
+            languageCounts.merge(previous.language, -1, Integer::sum);
+            difficultyCounts.merge(previous.difficulty, -1, Integer::sum);
+        }
+        languageCounts.merge(entry.language, 1, Integer::sum);
+        difficultyCounts.merge(entry.difficulty, 1, Integer::sum);
+        languageCounts.values().removeIf(count -> count <= 0);
+        difficultyCounts.values().removeIf(count -> count <= 0);
+    }
+
+    private Entry toEntry(Submission submission) {
+        Entry entry = new Entry();
+        entry.path = GitHubService.buildFilePath(submission);
+        entry.problem = submission.getProblemName();
+        entry.language = submission.getLanguage().toLowerCase();
+        String difficulty = submission.getDifficulty();
+        Entry previous = entries.get(entry.path);
+        if (difficulty == null || difficulty.isBlank()) {
+            // Keep what we knew before rather than downgrading to unknown
+            difficulty = previous != null ? previous.difficulty : UNKNOWN_DIFFICULTY;
+        }
+        entry.difficulty = difficulty;
+        entry.updatedAt = submission.getTimestamp();
+        return entry;
+    }
+
+    private String renderReadme(TreeMap<String, Entry> solutions, Map<String, Integer> languages, Map<String, Integer> difficulties) {
+        StringBuilder readme = new StringBuilder();
+        readme.append("# LeetCode Solutions\n\n");
+        readme.append("Total solutions: ").append(solutions.size()).append("\n\n");
+
+        readme.append("| Language | Solutions |\n|---|---|\n");
+        languages.forEach((language, count) -> readme.append("| ").append(language).append(" | ").append(count).append(" |\n"));
+
+        readme.append("\n| Difficulty | Solutions |\n|---|---|\n");
+        difficulties.forEach((difficulty, count) -> readme.append("| ").append(difficulty).append(" | ").append(count).append(" |\n"));
+
+        // Entries are sorted by path, so each language directory is contiguous
+        String currentLanguage = null;
+        for (Entry entry : solutions.values()) {
+            if (!entry.language.equals(currentLanguage)) {
+                currentLanguage = entry.language;
+                readme.append("\n## ").append(currentLanguage).append("\n\n");
+                readme.append("| Problem | Difficulty | Solution |\n|---|---|---|\n");
+            }
+            readme.append("| [").append(entry.problem).append("](https://leetcode.com/problems/").append(entry.problem).append("/) | ")
+                    .append(entry.difficulty).append(" | [")
+                    .append(entry.path).append("](").append(entry.path).append(") |\n");
+        }
+
+        readme.append("\n_This file is generated by LeetCode Uploader._\n");
+        return readme.toString();
+    }
+
+    private String renderManifest(TreeMap<String, Entry> solutions, Map<String, Integer> languages, Map<String, Integer> difficulties) {
+        ObjectNode manifest = objectMapper.createObjectNode();
+        manifest.put("total", solutions.size());
+        manifest.set("byLanguage", objectMapper.valueToTree(languages));
+        manifest.set("byDifficulty", objectMapper.valueToTree(difficulties));
+        ArrayNode list = manifest.putArray("solutions");
+        for (Entry entry : solutions.values()) {
+            list.add(objectMapper.valueToTree(entry));
+        }
+
+        try {
+            return objectMapper.writeValueAsString(manifest) + "\n";
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to render solutions manifest", e);
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(localManifest.getParent());
+            Path tempFile = localManifest.resolveSibling(localManifest.getFileName() + ".tmp");
+            Files.writeString(tempFile, renderManifest(entries, languageCounts, difficultyCounts));
+            Files.move(tempFile, localManifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Failed to save solutions index {}", localManifest, e);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Map<String, Integer> getLanguageCounts() {
+        return new TreeMap<>(languageCounts);
+    }
+
+    public synchronized Map<String, Integer> getDifficultyCounts() {
+        return new TreeMap<>(difficultyCounts);
+    }
+
+    public String getManifestPath() {
+        return manifestPath;
+    }
+
+    public static class Entry {
+        public String problem;
+        public String language;
+        public String difficulty;
+        public String path;
+        public long updatedAt;
+    }
+}
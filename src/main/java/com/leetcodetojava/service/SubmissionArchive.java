@@ -0,0 +1,74 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Local copy of every accepted solution, laid out exactly like the target repo,
+// so the repo can be audited and repaired without the browser
+public class SubmissionArchive {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionArchive.class);
+
+    private final Path root;
+
+    public SubmissionArchive(Path root) {
+        this.root = root;
+    }
+
+    public void store(Submission submission) {
+        String filePath = GitHubService.buildFilePath(submission);
+        Path target = root.resolve(filePath);
+        try {
+            Files.createDirectories(target.getParent());
+            Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.write(tempFile, submission.getCode().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to archive {}", filePath, e);
+        }
+    }
+
+    // Repo-relative paths of every archived solution
+    public List<String> listPaths() throws IOException {
+        List<String> paths = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return paths;
+        }
+
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .forEach(file -> paths.add(root.relativize(file).toString().replace('\\', '/')));
+        }
+        return paths;
+    }
+
+    public byte[] read(String path) throws IOException {
+        return Files.readAllBytes(root.resolve(path));
+    }
+
+    // Rebuilds the submission from its <language>/<problem>.<ext> location
+    public Submission load(String path) throws IOException {
+        int slash = path.indexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (slash <= 0 || dot <= slash) {
+            throw new IOException("Unexpected archive path: " + path);
+        }
+
+        Submission submission = new Submission(
+                path.substring(slash + 1, dot),
+                path.substring(0, slash),
+                new String(read(path), StandardCharsets.UTF_8));
+        submission.setStatus("Accepted");
+        return submission;
+    }
+}
@@ -0,0 +1,248 @@
+package com.leetcodetojava.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Every LeetCode submission ID the monitor has already handled, kept on disk as a memory-mapped
+// open-addressing table of longs. Opening it only maps the file, and a lookup is one hash and a
+// short linear probe however many IDs it holds. Recently asked-about IDs are answered from a small
+// LRU without touching the mapping. Writes go straight into the mapping, so they survive the
+// process being killed; force() on close also makes them survive a machine crash.
+//
+// The table doubles until it reaches the capacity for maxIds. Once that is half full the older
+// half is dropped: LeetCode IDs only grow and the monitor only ever looks at recent submissions,
+// so forgetting the oldest costs nothing while the file stays bounded.
+//
+// Layout: int magic, int capacity (a power of two), int size, int reserved, then capacity longs
+// where 0 marks an empty slot. Submission IDs are positive, so 0 is never a key.
+public class SubmissionIdIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionIdIndex.class);
+
+    private static final int MAGIC = 0x4C534944; // "LSID"
+    private static final int HEADER_BYTES = 16;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 28; // a 2 GB file
+
+    private final Path indexFile;
+    private final Map<Long, Boolean> recent;
+    private final int maxCapacity;
+    private FileChannel channel;
+    private MappedByteBuffer table;
+    private int capacity;
+    private int size;
+
+    public SubmissionIdIndex(Path indexFile, int cacheSize, int maxIds) {
+        this.indexFile = indexFile;
+        // The table is kept at most half full
+        this.maxCapacity = (int) Math.max(INITIAL_CAPACITY,
+                Math.min(MAX_CAPACITY, (long) Integer.highestOneBit(Math.max(1, maxIds - 1)) << 2));
+        this.recent = new LinkedHashMap<>(cacheSize * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        try {
+            open();
+            logger.info("Opened submission index {} with {} IDs", indexFile, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open submission index " + indexFile, e);
+        }
+    }
+
+    // Submission IDs arrive as strings; anything that is not a positive number is not indexable
+    public static long parseId(String submissionId) {
+        if (submissionId == null || submissionId.isEmpty()) {
+            return -1;
+        }
+        try {
+            long id = Long.parseLong(submissionId.trim());
+            return id > 0 ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public synchronized boolean contains(long id) {
+        if (id <= 0) {
+            return false;
+        }
+        Boolean cached = recent.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        boolean found = table.getLong(slotOffset(findSlot(table, capacity, id))) == id;
+        recent.put(id, found);
+        return found;
+    }
+
+    // False if the ID was already present
+    public synchronized boolean add(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Submission IDs are positive: " + id);
+        }
+        if (Boolean.TRUE.equals(recent.get(id))) {
+            return false;
+        }
+
+        int slot = findSlot(table, capacity, id);
+        recent.put(id, true);
+        if (table.getLong(slotOffset(slot)) == id) {
+            return false;
+        }
+
+        table.putLong(slotOffset(slot), id);
+        size++;
+        table.putInt(SIZE_OFFSET, size);
+        if (size * 2 > capacity) {
+            if (capacity < maxCapacity) {
+                grow();
+            } else {
+                evictOldest();
+            }
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            table.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to flush submission index {}", indexFile, e);
+        }
+        channel = null;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        if (!Files.exists(indexFile) || Files.size(indexFile) < HEADER_BYTES) {
+            writeTable(indexFile, INITIAL_CAPACITY, null, 0, 0);
+        }
+
+        channel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        table = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        capacity = table.getInt(CAPACITY_OFFSET);
+        if (table.getInt(0) != MAGIC || Integer.bitCount(capacity) != 1
+                || channel.size() != HEADER_BYTES + (long) capacity * Long.BYTES) {
+            channel.close();
+            // Set aside rather than trusted; the worst case is a few submissions uploaded again
+            Path damaged = indexFile.resolveSibling(indexFile.getFileName() + ".bad");
+            logger.warn("{} is not a valid submission index, moving it to {} and starting empty", indexFile, damaged);
+            Files.move(indexFile, damaged, StandardCopyOption.REPLACE_EXISTING);
+            open();
+            return;
+        }
+        size = table.getInt(SIZE_OFFSET);
+    }
+
+    // Rehashes into a table twice the size next to the old one, then swaps the files
+    private void grow() {
+        Path grown = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            writeTable(grown, capacity * 2, table, capacity, 0);
+            channel.close();
+            Files.move(grown, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+            logger.debug("Grew submission index to {} slots", capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow submission index " + indexFile, e);
+        }
+    }
+
+    // Rewrites the table at the maximum capacity, keeping the newest IDs until it is a quarter full
+    private void evictOldest() {
+        long[] ids = new long[size];
+        int count = 0;
+        for (int i = 0; i < capacity && count < size; i++) {
+            long id = table.getLong(slotOffset(i));
+            if (id != 0) {
+                ids[count++] = id;
+            }
+        }
+        Arrays.sort(ids, 0, count);
+        int keep = Math.min(count, maxCapacity / 4);
+        long minId = keep > 0 ? ids[count - keep] : Long.MAX_VALUE;
+
+        Path rotated = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            writeTable(rotated, maxCapacity, table, capacity, minId);
+            channel.close();
+            Files.move(rotated, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+            // Cached answers may name dropped IDs
+            recent.clear();
+            logger.info("Submission index reached {} IDs, kept the newest {} (from ID {})", count, size, minId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate submission index " + indexFile, e);
+        }
+    }
+
+    // Copies the IDs of at least minId from the old table
+    private static void writeTable(Path file, int capacity, MappedByteBuffer from, int fromCapacity, long minId) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * Long.BYTES);
+            int copied = 0;
+            for (int i = 0; from != null && i < fromCapacity; i++) {
+                long id = from.getLong(slotOffset(i));
+                if (id != 0 && id >= minId) {
+                    target.putLong(slotOffset(findSlot(target, capacity, id)), id);
+                    copied++;
+                }
+            }
+            target.putInt(0, MAGIC);
+            target.putInt(CAPACITY_OFFSET, capacity);
+            target.putInt(SIZE_OFFSET, copied);
+            target.force();
+        }
+    }
+
+    // The slot holding id, or the empty slot where it would go
+    private static int findSlot(MappedByteBuffer table, int capacity, long id) {
+        int mask = capacity - 1;
+        int slot = (int) mix(id) & mask;
+        while (true) {
+            long stored = table.getLong(slotOffset(slot));
+            if (stored == 0 || stored == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * Long.BYTES;
+    }
+
+    // Consecutive IDs would otherwise fill neighbouring slots and turn probes into long runs
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
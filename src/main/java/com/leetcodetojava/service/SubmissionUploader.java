@@ -0,0 +1,33 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A destination for accepted solutions: the GitHub REST API or a local clone that pushes in batches
+public interface SubmissionUploader {
+
+    boolean uploadSubmission(Submission submission);
+
+    // All submissions end up in a single commit
+    boolean uploadSubmissions(List<Submission> submissions);
+
+    // Entry points for the upload queue; uploaders that can use the precomputed blob id and
+    // UTF-8 bytes override these, the rest get the submissions expanded for the call
+    default boolean uploadCompactSubmission(CompactSubmission submission) {
+        return uploadSubmission(submission.toSubmission());
+    }
+
+    default boolean uploadCompactSubmissions(List<CompactSubmission> submissions) {
+        List<Submission> expanded = new ArrayList<>(submissions.size());
+        for (CompactSubmission submission : submissions) {
+            expanded.add(submission.toSubmission());
+        }
+        return uploadSubmissions(expanded);
+    }
+
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,382 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.metrics.MetricsRegistry;
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounded hand-off between the monitor tick and GitHub uploads, with per-item retry
+public class UploadQueue {
+    private static final Logger logger = LoggerFactory.getLogger(UploadQueue.class);
+
+    private final SubmissionUploader uploader;
+    private final ConfigurationManager configManager;
+    private final AtomicBoolean running;
+    private final AtomicInteger waitingRetries;
+    private final AtomicInteger outstanding; // accepted but not yet uploaded
+    private final boolean batchCommits;
+    private final MetricsRegistry.Counter uploaded;
+    private final MetricsRegistry.Counter retried;
+    private final MetricsRegistry.Counter exhausted;
+    private OutboxJournal journal;
+    private SubmissionArchive archive;
+    private BlockingQueue<UploadTask> queue;
+    private Semaphore freeSlots; // taken before a task is journaled or queued, returned when a worker takes it
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+
+    public UploadQueue(SubmissionUploader uploader, ConfigurationManager configManager) {
+        this(uploader, configManager, configManager.isBatchCommitEnabled());
+    }
+
+    // Bulk producers such as the backfill force batching regardless of github.batch.enabled
+    public UploadQueue(SubmissionUploader uploader, ConfigurationManager configManager, boolean batchCommits) {
+        this.uploader = uploader;
+        this.configManager = configManager;
+        this.batchCommits = batchCommits;
+        this.running = new AtomicBoolean(false);
+        this.waitingRetries = new AtomicInteger();
+        this.outstanding = new AtomicInteger();
+        
+        MetricsRegistry metrics = MetricsRegistry.global();
+        String account = configManager.getAccountLabel();
+        String help = "Submissions leaving the upload queue, by outcome";
+        this.uploaded = metrics.counter("leetcode_uploads_total", help, "account", account, "result", "uploaded");
+        this.retried = metrics.counter("leetcode_upload_retries_total", "Failed upload attempts, counted per submission",
+                "account", account);
+        this.exhausted = metrics.counter("leetcode_upload_retries_exhausted_total",
+                "Submissions that used up upload.max.attempts and are now retried at the maximum delay", "account", account);
+        metrics.gauge("leetcode_upload_queue_depth", "Submissions queued or waiting for a retry", this::getQueueDepth,
+                "account", account);
+        metrics.gauge("leetcode_upload_backlog_heap_bytes", "Estimated heap held by submissions not uploaded yet",
+                this::getBacklogHeapBytes, "account", account);
+        metrics.gauge("leetcode_upload_backlog_heap_bytes_per_submission",
+                "Estimated heap per submission not uploaded yet (0 when empty)", this::getHeapBytesPerSubmission,
+                "account", account);
+    }
+
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.journal = new OutboxJournal(configManager.getStateDirectory().resolve("outbox.log"),
+                configManager.getOutboxCompactThreshold(), configManager.getUploadDeflateThresholdBytes());
+        try {
+            journal.open();
+        } catch (Exception e) {
+            running.set(false);
+            throw new IllegalStateException("Failed to open outbox journal", e);
+        }
+        
+        this.archive = new SubmissionArchive(configManager.getArchiveDirectory());
+        
+        int workerCount = configManager.getUploadWorkers();
+        this.queue = new ArrayBlockingQueue<>(configManager.getUploadQueueCapacity());
+        this.freeSlots = new Semaphore(configManager.getUploadQueueCapacity());
+        this.workers = Executors.newFixedThreadPool(workerCount, namedThreads("upload-worker"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("upload-retry"));
+
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::runWorker);
+        }
+
+        logger.info("Upload queue started with {} workers and capacity {}", workerCount, configManager.getUploadQueueCapacity());
+        
+        replayJournal();
+    }
+    
+    // Re-queue everything the journal still holds; blocks on a side thread so a large backlog respects the bound
+    private void replayJournal() {
+        Map<Long, CompactSubmission> pending = journal.getPending();
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        logger.info("Replaying {} submissions from the outbox journal", pending.size());
+        Thread replay = new Thread(() -> {
+            try {
+                for (Map.Entry<Long, CompactSubmission> entry : pending.entrySet()) {
+                    if (!running.get()) {
+                        return;
+                    }
+                    freeSlots.acquire();
+                    outstanding.incrementAndGet();
+                    queue.add(new UploadTask(entry.getValue(), entry.getKey()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "outbox-replay");
+        replay.setDaemon(true);
+        replay.start();
+    }
+
+    // Never blocks; a false return tells the caller to hold on to the submission and try again later
+    public boolean enqueue(Submission submission) {
+        try {
+            return enqueue(submission, 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public boolean enqueue(Submission submission, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running.get()) {
+            return false;
+        }
+
+        // Reserve the slot before journaling: a rejected offer would otherwise cost an add and a done
+        // record, both fsync'd, and the caller offers the same submission again on every tick
+        if (!freeSlots.tryAcquire(timeout, unit)) {
+            logger.warn("Upload queue is full ({} queued), rejecting {}", queue.size(), submission.getProblemName());
+            return false;
+        }
+
+        // One immutable copy shared by the journal and the queue; the caller may keep changing its own
+        CompactSubmission compact = CompactSubmission.of(submission, configManager.getUploadDeflateThresholdBytes());
+
+        // Journal first so an accepted submission survives a crash at any later point
+        long journalId;
+        try {
+            journalId = journal.append(compact);
+        } catch (Exception e) {
+            freeSlots.release();
+            logger.error("Failed to journal submission {}", submission.getProblemName(), e);
+            return false;
+        }
+
+        archive.store(submission);
+        
+        outstanding.incrementAndGet();
+        queue.add(new UploadTask(compact, journalId));
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public int getQueueDepth() {
+        return (queue != null ? queue.size() : 0) + waitingRetries.get();
+    }
+
+    public long getBacklogHeapBytes() {
+        return journal != null ? journal.getPendingHeapBytes() : 0;
+    }
+
+    private double getHeapBytesPerSubmission() {
+        if (journal == null) {
+            return 0;
+        }
+        int pending = journal.size();
+        return pending == 0 ? 0 : (double) journal.getPendingHeapBytes() / pending;
+    }
+
+    public int getRemainingCapacity() {
+        return freeSlots != null ? freeSlots.availablePermits() : 0;
+    }
+
+    // Waits until nothing is queued, uploading or waiting for a retry
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (outstanding.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(200);
+        }
+        return true;
+    }
+
+    private void runWorker() {
+        while (running.get() || !queue.isEmpty()) {
+            try {
+                UploadTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                freeSlots.release();
+
+                List<UploadTask> batch = collectBatch(first);
+                upload(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Unexpected error in upload worker", e);
+            }
+        }
+    }
+
+    private List<UploadTask> collectBatch(UploadTask first) throws InterruptedException {
+        List<UploadTask> batch = new ArrayList<>();
+        batch.add(first);
+
+        if (!batchCommits) {
+            return batch;
+        }
+
+        // Wait for the batch to fill, but never hold the first item longer than the configured delay
+        long deadline = first.enqueuedAt + TimeUnit.SECONDS.toMillis(configManager.getBatchMaxDelaySeconds());
+        while (batch.size() < configManager.getBatchSize() && running.get()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            UploadTask next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                break;
+            }
+            freeSlots.release();
+            batch.add(next);
+        }
+        int drained = queue.drainTo(batch, configManager.getBatchSize() - batch.size());
+        freeSlots.release(drained);
+        return batch;
+    }
+
+    private void upload(List<UploadTask> batch) {
+        boolean success;
+        if (batch.size() == 1 && !batchCommits) {
+            success = uploader.uploadCompactSubmission(batch.get(0).submission);
+        } else {
+            List<CompactSubmission> submissions = new ArrayList<>(batch.size());
+            for (UploadTask task : batch) {
+                submissions.add(task.submission);
+            }
+            success = uploader.uploadCompactSubmissions(submissions);
+        }
+
+        if (success) {
+            for (UploadTask task : batch) {
+                markDone(task.journalId);
+                outstanding.decrementAndGet();
+            }
+            uploaded.add(batch.size());
+            logger.debug("Uploaded {} queued submissions, {} still queued", batch.size(), getQueueDepth());
+            return;
+        }
+
+        retried.add(batch.size());
+        for (UploadTask task : batch) {
+            scheduleRetry(task);
+        }
+    }
+
+    // Never gives up: past upload.max.attempts a submission is retried at the maximum delay, so a
+    // long-running monitor does not strand it in the journal until the next start
+    private void scheduleRetry(UploadTask task) {
+        task.attempts++;
+        long delay;
+        if (task.attempts >= configManager.getUploadMaxAttempts()) {
+            delay = configManager.getUploadRetryMaxDelayMillis();
+            if (!task.exhausted) {
+                task.exhausted = true;
+                exhausted.increment();
+                logger.error("Upload of {} still failing after {} attempts, retrying every {} s until it succeeds",
+                        task.submission.getProblemName(), task.attempts, delay / 1000);
+                System.out.println("❌ Upload keeps failing, will keep retrying: " + task.submission.getProblemName());
+            }
+        } else {
+            delay = backoffDelayMillis(task.attempts);
+        }
+        logger.info("Retrying upload of {} in {} ms (attempt {})", task.submission.getProblemName(), delay, task.attempts + 1);
+
+        waitingRetries.incrementAndGet();
+        retryScheduler.schedule(() -> {
+            waitingRetries.decrementAndGet();
+            if (freeSlots.tryAcquire()) {
+                queue.add(task);
+            } else {
+                // Still full: back off again without spending an attempt
+                task.attempts--;
+                scheduleRetry(task);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void markDone(long journalId) {
+        try {
+            journal.markDone(journalId);
+        } catch (Exception e) {
+            logger.warn("Failed to mark outbox entry {} done", journalId, e);
+        }
+    }
+
+    // Exponential backoff with jitter in the upper half of each step, so the attempts always span
+    // at least half the schedule (15.5 s with the defaults) and cannot all be spent in one short outage
+    long backoffDelayMillis(int attempt) {
+        long base = configManager.getUploadRetryBaseDelayMillis();
+        long cap = configManager.getUploadRetryMaxDelayMillis();
+        long ceiling = Math.min(cap, base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    public void shutdown() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+
+        logger.info("Stopping upload queue with {} submissions queued, {} KB of backlog in memory", getQueueDepth(),
+                getBacklogHeapBytes() / 1024);
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queue.isEmpty()) {
+            logger.warn("{} submissions were not uploaded before shutdown", queue.size());
+        }
+        journal.close();
+        uploader.shutdown();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class UploadTask {
+        private final CompactSubmission submission;
+        private final long journalId;
+        private final long enqueuedAt;
+        private int attempts;
+        private boolean exhausted;
+
+        private UploadTask(CompactSubmission submission, long journalId) {
+            this.submission = submission;
+            this.journalId = journalId;
+            this.enqueuedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+// Collects everything the monitor needs from a LeetCode page in a single WebDriver round trip.
+// The returned object arrives in Java as a Map; see PageSnapshot.
+// arguments[0]: the code version the caller already holds; the code is only returned when it differs.
+var knownCodeVersion = arguments.length > 0 ? arguments[0] : null;
+var snapshot = {
+    url: location.href,
+    title: document.title,
+    slug: null,
+    submissionId: null,
+    language: null,
+    code: null,
+    codeSource: null,
+    codeVersion: null,
+    verdict: null,
+    acceptedLabel: false,
+    difficulty: null,
+    hidden: document.hidden,
+    msSinceInput: -1,
+    msSinceSubmit: -1
+};
+
+// Other sites open in the same browser are reported by URL only; nothing is installed in them
+if (!/(^|\.)leetcode\.(com|cn)$/.test(location.hostname)) {
+    return snapshot;
+}
+
+// Installed once per page: remembers when the user last typed or clicked, and when they last submitted
+if (!window.__leetcodeUploader) {
+    var installed = window.__leetcodeUploader = {
+        lastInputAt: Date.now(),
+        lastSubmitAt: 0,
+        pageId: Math.random().toString(36).slice(2),
+        codeVersion: 0,
+        monacoHooked: false,
+        observer: null
+    };
+    document.addEventListener('keydown', function (event) {
+        installed.lastInputAt = Date.now();
+        if ((event.ctrlKey || event.metaKey) && event.key === 'Enter') {
+            installed.lastSubmitAt = Date.now();
+        }
+    }, true);
+    document.addEventListener('mousedown', function (event) {
+        installed.lastInputAt = Date.now();
+        var button = event.target && event.target.closest ? event.target.closest('button') : null;
+        if (button && (button.getAttribute('data-e2e-locator') === 'console-submit-button' || text(button) === 'Submit')) {
+            installed.lastSubmitAt = Date.now();
+        }
+    }, true);
+}
+snapshot.msSinceInput = Date.now() - window.__leetcodeUploader.lastInputAt;
+if (window.__leetcodeUploader.lastSubmitAt) {
+    snapshot.msSinceSubmit = Date.now() - window.__leetcodeUploader.lastSubmitAt;
+}
+
+var slugMatch = location.pathname.match(/\/problems\/([^\/]+)/);
+if (slugMatch) {
+    snapshot.slug = slugMatch[1];
+}
+// /submissions/detail/<id>/, or /problems/<slug>/submissions/<id>/ once a submission has been judged
+var submissionMatch = location.pathname.match(/\/submissions\/(?:detail\/)?(\d+)/);
+if (submissionMatch) {
+    snapshot.submissionId = submissionMatch[1];
+}
+
+function text(element) {
+    return element ? (element.innerText || element.textContent || '').trim() : '';
+}
+
+// Every edit bumps a counter in the page, so an unchanged editor costs the caller nothing to check.
+// Monaco may load after the first snapshot, so hooking is retried until it succeeds.
+var tracker = window.__leetcodeUploader;
+function bumpCodeVersion() {
+    tracker.codeVersion++;
+}
+try {
+    if (!tracker.monacoHooked && window.monaco && monaco.editor) {
+        monaco.editor.getModels().forEach(function (existing) {
+            existing.onDidChangeContent(bumpCodeVersion);
+        });
+        // Switching language replaces the model
+        monaco.editor.onDidCreateModel(function (created) {
+            bumpCodeVersion();
+            created.onDidChangeContent(bumpCodeVersion);
+        });
+        tracker.monacoHooked = true;
+    }
+} catch (e) {
+    // Untracked: the code is returned on every snapshot
+}
+if (!tracker.monacoHooked && !tracker.observer) {
+    var editorRoot = document.querySelector('.CodeMirror, .ace_editor');
+    if (editorRoot) {
+        tracker.observer = new MutationObserver(bumpCodeVersion);
+        tracker.observer.observe(editorRoot, {childList: true, subtree: true, characterData: true});
+    }
+}
+if (tracker.monacoHooked || tracker.observer) {
+    snapshot.codeVersion = tracker.pageId + ':' + tracker.codeVersion;
+}
+var wantCode = snapshot.codeVersion === null || snapshot.codeVersion !== knownCodeVersion;
+
+// Monaco keeps the whole document in its models; the textarea only mirrors what is rendered
+try {
+    if (window.monaco && monaco.editor) {
+        var model = null;
+        var editors = monaco.editor.getEditors ? monaco.editor.getEditors() : [];
+        for (var i = 0; i < editors.length && !model; i++) {
+            var candidate = editors[i].getModel();
+            if (candidate && !editors[i].getOption(monaco.editor.EditorOption.readOnly)) {
+                model = candidate;
+            }
+        }
+        if (!model) {
+            // The test case panes are plaintext models; the solution is the first one with a real language
+            var models = monaco.editor.getModels();
+            for (var j = 0; j < models.length && !model; j++) {
+                var languageId = models[j].getLanguageId ? models[j].getLanguageId() : models[j].getModeId();
+                if (languageId && languageId !== 'plaintext') {
+                    model = models[j];
+                }
+            }
+        }
+        if (model) {
+            if (wantCode) {
+                snapshot.code = model.getValue();
+                snapshot.codeSource = 'monaco-model';
+            }
+            snapshot.language = model.getLanguageId ? model.getLanguageId() : model.getModeId();
+        }
+    }
+} catch (e) {
+    // Fall through to the DOM selectors below
+}
+
+if (wantCode && !snapshot.code) {
+    var textareas = ['.monaco-editor textarea', 'textarea[data-cy="code-editor"]', '.ace_editor textarea', 'div[class*="editor"] textarea'];
+    for (var k = 0; k < textareas.length && !snapshot.code; k++) {
+        var area = document.querySelector(textareas[k]);
+        if (area && area.value && area.value.trim()) {
+            snapshot.code = area.value;
+            snapshot.codeSource = textareas[k];
+        }
+    }
+}
+
+if (wantCode && !snapshot.code) {
+    var lines = document.querySelectorAll('pre.CodeMirror-line');
+    if (lines.length) {
+        snapshot.code = Array.prototype.map.call(lines, text).join('\n');
+        snapshot.codeSource = 'codemirror';
+    }
+}
+
+// The language picker names the language as LeetCode does ("C++", "Python3"), which beats Monaco's id
+var selectedLanguage = document.querySelector('select[data-cy="lang-select"] option[selected]')
+    || document.querySelector('div[class*="language"]');
+if (text(selectedLanguage)) {
+    snapshot.language = text(selectedLanguage);
+}
+
+var difficulty = document.querySelector('div[class*="text-difficulty-"]');
+if (text(difficulty)) {
+    snapshot.difficulty = text(difficulty);
+}
+
+function firstByXPath(expression) {
+    return document.evaluate(expression, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+}
+
+// Problem page: the result pane; submissions page: any "Accepted" label
+var result = document.querySelector('[data-e2e-locator="submission-result"]');
+if (text(result)) {
+    snapshot.verdict = text(result);
+} else if (firstByXPath("//div[contains(@class, 'status')][normalize-space(.)='Accepted']")) {
+    snapshot.verdict = 'Accepted';
+}
+snapshot.acceptedLabel = firstByXPath("//span[contains(text(), 'Accepted')]") !== null;
+
+return snapshot;
@@ -0,0 +1,88 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The streaming Contents API body against the Base64 String + DTO + JSON String route it replaced
+class ContentsRequestBodyTest {
+    private static final String MESSAGE = "feat: update java solution for two-sum";
+    private static final String SHA = "3b18e512dba79e4c8300dd08aeb37f8e728b8dad";
+    private static final int CODE_BYTES = 64 * 1024;
+    private static final int ROUNDS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] code = sampleCode(CODE_BYTES);
+
+    @Test
+    void writesTheSameBytesAsTheDtoRoute() throws IOException {
+        assertArrayEquals(writeDto(null), writeStreaming(null));
+        assertArrayEquals(writeDto(SHA), writeStreaming(SHA));
+    }
+
+    @Test
+    void allocatesFarLessThanTheDtoRoute() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up both paths so class loading and JIT allocations are not counted
+        for (int i = 0; i < ROUNDS; i++) {
+            writeDto(SHA);
+            writeStreaming(SHA);
+        }
+
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            writeDto(SHA);
+        }
+        long dtoBytes = (threads.getThreadAllocatedBytes(threadId) - start) / ROUNDS;
+
+        start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            writeStreaming(SHA);
+        }
+        long streamingBytes = (threads.getThreadAllocatedBytes(threadId) - start) / ROUNDS;
+
+        // Both include the encoded body copied out of the sink (~4/3 of the code); the DTO route
+        // adds the Base64 String, the JSON String and its UTF-8 encoding on top
+        assertTrue(streamingBytes * 2 < dtoBytes,
+                "streaming body allocated " + streamingBytes + " bytes per upload, the DTO route " + dtoBytes);
+    }
+
+    // What uploads did before: Base64 String, request object, JSON String, then UTF-8 onto the sink
+    private byte[] writeDto(String sha) throws IOException {
+        String content = Base64.getEncoder().encodeToString(code);
+        String json = sha != null
+                ? objectMapper.writeValueAsString(new GitHubService.UpdateFileRequest(MESSAGE, content, sha))
+                : objectMapper.writeValueAsString(new GitHubService.CreateFileRequest(MESSAGE, content));
+        return drain(RequestBody.create(json, MediaType.get("application/json")));
+    }
+
+    private byte[] writeStreaming(String sha) throws IOException {
+        return drain(new ContentsRequestBody(objectMapper.getFactory(), MESSAGE, code, sha));
+    }
+
+    private static byte[] drain(RequestBody body) throws IOException {
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        return sink.readByteArray();
+    }
+
+    private static byte[] sampleCode(int size) {
+        StringBuilder code = new StringBuilder("class Solution {\n");
+        while (code.length() < size - 2) {
+            code.append("    int f").append(code.length()).append("(int x) { return x * 31 + 7; }\n");
+        }
+        return code.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,228 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The Git Data API of one repository and branch for MockWebServer: refs, commits and trees with
+// inline content. Reads carry GitHub's caching headers, the ref update is checked for fast-forward,
+// and single responses can be replaced to inject failures.
+class GitDataApiStub extends Dispatcher {
+    static final String OWNER = "octo";
+    static final String REPO = "solutions";
+    static final String BRANCH = "main";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Map<String, String>> trees = new HashMap<>(); // tree sha -> path -> content
+    private final Map<String, String[]> commits = new HashMap<>(); // commit sha -> {tree sha, parent sha}
+    private final Map<String, ConcurrentLinkedQueue<MockResponse>> injected = new ConcurrentHashMap<>();
+    private final List<JsonNode> createdTrees = new ArrayList<>();
+    private final List<JsonNode> createdCommits = new ArrayList<>();
+    private final AtomicInteger rejectedRefUpdates = new AtomicInteger();
+    private Runnable beforeNextRefUpdate;
+    private String headSha;
+    private int counter;
+
+    GitDataApiStub() {
+        String emptyTree = newSha("tree");
+        trees.put(emptyTree, new TreeMap<>());
+        headSha = newSha("commit");
+        commits.put(headSha, new String[]{emptyTree, null});
+    }
+
+    // The next request to "METHOD resource" (e.g. "POST git/trees") gets this response instead
+    void inject(String request, MockResponse response) {
+        injected.computeIfAbsent(request, key -> new ConcurrentLinkedQueue<>()).add(response);
+    }
+
+    // A commit made by someone else, e.g. a push from another machine
+    synchronized void commitExternally(String path, String content) {
+        Map<String, String> files = new TreeMap<>(headFiles());
+        files.put(path, content);
+        String treeSha = newSha("tree");
+        trees.put(treeSha, files);
+        String commitSha = newSha("commit");
+        commits.put(commitSha, new String[]{treeSha, headSha});
+        headSha = commitSha;
+    }
+
+    // Runs once, just before the next ref update is checked, e.g. to move the branch under it
+    synchronized void beforeNextRefUpdate(Runnable action) {
+        this.beforeNextRefUpdate = action;
+    }
+
+    synchronized String getHeadSha() {
+        return headSha;
+    }
+
+    synchronized String treeOf(String commitSha) {
+        return commits.get(commitSha)[0];
+    }
+
+    synchronized Map<String, String> headFiles() {
+        return trees.get(commits.get(headSha)[0]);
+    }
+
+    synchronized List<JsonNode> getCreatedTrees() {
+        return new ArrayList<>(createdTrees);
+    }
+
+    synchronized List<JsonNode> getCreatedCommits() {
+        return new ArrayList<>(createdCommits);
+    }
+
+    int getRejectedRefUpdates() {
+        return rejectedRefUpdates.get();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String prefix = "/repos/" + OWNER + "/" + REPO + "/";
+        String path = request.getRequestUrl().encodedPath();
+        if (!path.startsWith(prefix)) {
+            return error(404, "Not Found");
+        }
+        String resource = path.substring(prefix.length());
+
+        ConcurrentLinkedQueue<MockResponse> replacements = injected.get(request.getMethod() + " " + resource);
+        MockResponse replacement = replacements != null ? replacements.poll() : null;
+        if (replacement != null) {
+            return replacement;
+        }
+
+        try {
+            return route(request.getMethod(), resource, request);
+        } catch (IOException e) {
+            return error(400, e.getMessage());
+        }
+    }
+
+    private synchronized MockResponse route(String method, String resource, RecordedRequest request) throws IOException {
+        if ("GET".equals(method) && resource.equals("git/ref/heads/" + BRANCH)) {
+            ObjectNode ref = objectMapper.createObjectNode();
+            ref.put("ref", "refs/heads/" + BRANCH);
+            ref.putObject("object").put("sha", headSha).put("type", "commit");
+            return cacheable(json(200, ref), headSha);
+        }
+        if ("GET".equals(method) && resource.startsWith("git/commits/")) {
+            String sha = resource.substring("git/commits/".length());
+            String[] commit = commits.get(sha);
+            if (commit == null) {
+                return error(404, "Not Found");
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("sha", sha);
+            node.putObject("tree").put("sha", commit[0]);
+            return cacheable(json(200, node), sha);
+        }
+        if ("POST".equals(method) && resource.equals("git/trees")) {
+            JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+            createdTrees.add(body);
+            Map<String, String> base = trees.get(body.path("base_tree").asText());
+            if (base == null) {
+                return error(422, "base_tree does not exist");
+            }
+            Map<String, String> files = new TreeMap<>(base);
+            for (JsonNode entry : body.path("tree")) {
+                files.put(entry.path("path").asText(), entry.path("content").asText());
+            }
+            String treeSha = newSha("tree");
+            trees.put(treeSha, files);
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("sha", treeSha);
+            rootEntries(files, response.putArray("tree"));
+            return json(201, response);
+        }
+        if ("POST".equals(method) && resource.equals("git/commits")) {
+            JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+            createdCommits.add(body);
+            String sha = newSha("commit");
+            commits.put(sha, new String[]{body.path("tree").asText(), body.path("parents").path(0).asText(null)});
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("sha", sha);
+            return json(201, response);
+        }
+        if ("PATCH".equals(method) && resource.equals("git/refs/heads/" + BRANCH)) {
+            JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+            if (beforeNextRefUpdate != null) {
+                Runnable action = beforeNextRefUpdate;
+                beforeNextRefUpdate = null;
+                action.run();
+            }
+            String[] commit = commits.get(body.path("sha").asText());
+            if (commit == null || !headSha.equals(commit[1])) {
+                rejectedRefUpdates.incrementAndGet();
+                return error(422, "Update is not a fast forward");
+            }
+            headSha = body.path("sha").asText();
+            ObjectNode ref = objectMapper.createObjectNode();
+            ref.putObject("object").put("sha", headSha);
+            return json(200, ref);
+        }
+        return error(404, "Not Found");
+    }
+
+    // Like GitHub, a created tree is described by its root only: files at the top level and one
+    // "tree" entry per directory, never the nested paths that were written
+    private static void rootEntries(Map<String, String> files, ArrayNode entries) {
+        Map<String, StringBuilder> directories = new TreeMap<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            int slash = file.getKey().indexOf('/');
+            if (slash < 0) {
+                entries.addObject()
+                        .put("path", file.getKey())
+                        .put("type", "blob")
+                        .put("sha", GitBlobHasher.blobSha(file.getValue()));
+            } else {
+                directories.computeIfAbsent(file.getKey().substring(0, slash), key -> new StringBuilder())
+                        .append(file.getKey()).append('\0').append(file.getValue()).append('\0');
+            }
+        }
+        directories.forEach((name, contents) -> entries.addObject()
+                .put("path", name)
+                .put("type", "tree")
+                .put("sha", GitBlobHasher.blobSha(contents.toString())));
+    }
+
+    private String newSha(String kind) {
+        return GitBlobHasher.blobSha(kind + " " + (++counter));
+    }
+
+    // What GitHub sends on API reads
+    private static MockResponse cacheable(MockResponse response, String etag) {
+        return response
+                .setHeader("Cache-Control", "private, max-age=60, s-maxage=60")
+                .setHeader("ETag", "\"" + etag + "\"");
+    }
+
+    private MockResponse json(int status, JsonNode body) {
+        try {
+            return new MockResponse()
+                    .setResponseCode(status)
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    MockResponse error(int status, String message) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("message", message);
+        return json(status, body);
+    }
+}
@@ -0,0 +1,119 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitHubRequestSchedulerTest {
+    private static final String SECONDARY_LIMIT_BODY = "{\"message\":\"You have exceeded a secondary rate limit. "
+            + "Please wait a few minutes before you try again.\",\"documentation_url\":"
+            + "\"https://docs.github.com/rest/overview/rate-limits-for-the-rest-api#about-secondary-rate-limits\"}";
+
+    private MockWebServer server;
+    private GitHubRequestScheduler scheduler;
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("github.write.interval.ms", 0);
+        scheduler = new GitHubRequestScheduler(new ConfigurationManager(config));
+        client = new OkHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void recognisesSecondaryLimitFromBodyAlone() {
+        assertTrue(GitHubRequestScheduler.isRateLimited(response(403, "4999", SECONDARY_LIMIT_BODY)));
+        assertTrue(GitHubRequestScheduler.isRateLimited(response(403, null,
+                "{\"message\":\"Forbidden\",\"documentation_url\":\"https://docs.github.com/rest/overview/rate-limits-for-the-rest-api\"}")));
+    }
+
+    @Test
+    void recognisesPrimaryLimitAndRetryAfter() {
+        assertTrue(GitHubRequestScheduler.isRateLimited(response(403, "0", "{\"message\":\"API rate limit exceeded\"}")));
+        assertTrue(GitHubRequestScheduler.isRateLimited(response(429, null, "")));
+    }
+
+    @Test
+    void permissionErrorsAreNotRateLimits() {
+        assertFalse(GitHubRequestScheduler.isRateLimited(response(403, "4999",
+                "{\"message\":\"Resource not accessible by personal access token\"}")));
+        assertFalse(GitHubRequestScheduler.isRateLimited(response(404, "4999", "{\"message\":\"Not Found\"}")));
+    }
+
+    @Test
+    void checkingTheBodyLeavesItReadable() throws Exception {
+        Response response = response(403, "4999", SECONDARY_LIMIT_BODY);
+        GitHubRequestScheduler.isRateLimited(response);
+        assertEquals(SECONDARY_LIMIT_BODY, response.body().string());
+    }
+
+    @Test
+    void secondaryLimitWithoutHeadersBacksOffAMinute() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(403)
+                .setHeader("X-RateLimit-Remaining", "4999")
+                .setBody(SECONDARY_LIMIT_BODY));
+        Request request = new Request.Builder().url(server.url("/repos/octo/solutions/git/trees")).get().build();
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            long before = System.currentTimeMillis();
+            Future<Response> call = caller.submit(() -> scheduler.execute(client.newCall(request), GitHubRequestScheduler.Priority.UPLOAD));
+            assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (scheduler.getLockedUntilMillis() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(scheduler.getLockedUntilMillis() >= before + 60_000,
+                    "locked for " + (scheduler.getLockedUntilMillis() - before) + " ms");
+            // Held back rather than returned to the caller as a failure
+            assertFalse(call.isDone());
+            assertEquals(1, server.getRequestCount());
+            call.cancel(true);
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private static Response response(int code, String remaining, String body) {
+        Response.Builder builder = new Response.Builder()
+                .request(new Request.Builder().url("https://api.github.com/repos/octo/solutions/git/trees").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(body, MediaType.get("application/json")));
+        if (remaining != null) {
+            builder.header("X-RateLimit-Remaining", remaining);
+        }
+        return builder.build();
+    }
+}
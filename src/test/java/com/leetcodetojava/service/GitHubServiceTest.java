@@ -0,0 +1,197 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Batched Git Data API uploads against a local stub of the GitHub API
+class GitHubServiceTest {
+    @TempDir
+    Path stateDir;
+
+    private MockWebServer server;
+    private GitDataApiStub github;
+    private GitHubService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        github = new GitDataApiStub();
+        server = new MockWebServer();
+        server.setDispatcher(github);
+        server.start();
+
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("github.token", "ghp_" + "0".repeat(36));
+        config.setProperty("github.repo", "https://github.com/" + GitDataApiStub.OWNER + "/" + GitDataApiStub.REPO);
+        config.setProperty("github.branch", GitDataApiStub.BRANCH);
+        config.setProperty("github.api.url", server.url("/").toString());
+        config.setProperty("github.write.interval.ms", 0);
+        config.setProperty("state.dir", stateDir.toString());
+
+        service = new GitHubService(new ConfigurationManager(config));
+        service.initialize();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void commitsBatchOnTopOfBranchHead() {
+        String initialHead = github.getHeadSha();
+
+        assertTrue(service.uploadSubmissions(List.of(
+                submission("two-sum", "java", "class Solution {}"),
+                submission("add-two-numbers", "python", "class Solution: pass"))));
+
+        Map<String, String> files = github.headFiles();
+        assertEquals("class Solution {}", files.get("java/two-sum.java"));
+        assertEquals("class Solution: pass", files.get("python/add-two-numbers.py"));
+        assertEquals(1, github.getCreatedTrees().size());
+        JsonNode commit = github.getCreatedCommits().get(0);
+        assertEquals(initialHead, commit.path("parents").path(0).asText());
+        assertEquals("feat: add 2 solutions", commit.path("message").asText().lines().findFirst().orElse(""));
+    }
+
+    @Test
+    void laterBatchSeesTheRefMovedByTheEarlierOne() {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "v1"))));
+        String afterFirst = github.getHeadSha();
+
+        // GitHub marks ref reads cacheable for 60s; a cached head would make this batch non-fast-forward
+        assertTrue(service.uploadSubmissions(List.of(submission("three-sum", "java", "v1"))));
+
+        assertEquals(afterFirst, github.getCreatedCommits().get(1).path("parents").path(0).asText());
+        assertEquals(0, github.getRejectedRefUpdates());
+        assertEquals(2, github.headFiles().size());
+    }
+
+    @Test
+    void rebuildsOnNewHeadWhenRefUpdateIsRejected() {
+        github.beforeNextRefUpdate(() -> github.commitExternally("notes.md", "pushed from elsewhere"));
+
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution {}"))));
+
+        assertEquals(1, github.getRejectedRefUpdates());
+        List<JsonNode> commits = github.getCreatedCommits();
+        assertEquals(2, commits.size());
+        String externalHead = commits.get(1).path("parents").path(0).asText();
+        assertEquals(github.treeOf(externalHead), github.getCreatedTrees().get(1).path("base_tree").asText());
+
+        // Nothing from either side is lost
+        Map<String, String> files = github.headFiles();
+        assertEquals("pushed from elsewhere", files.get("notes.md"));
+        assertEquals("class Solution {}", files.get("java/two-sum.java"));
+    }
+
+    @Test
+    void failedTreeLeavesBranchUntouchedAndRetrySucceeds() {
+        String initialHead = github.getHeadSha();
+        github.inject("POST git/trees", github.error(500, "Server Error"));
+        Submission submission = submission("two-sum", "java", "class Solution {}");
+
+        assertFalse(service.uploadSubmissions(List.of(submission)));
+        assertEquals(initialHead, github.getHeadSha());
+        assertTrue(github.getCreatedCommits().isEmpty());
+
+        // The failed attempt must not have marked the file as uploaded
+        assertTrue(service.uploadSubmissions(List.of(submission)));
+        assertEquals("class Solution {}", github.headFiles().get("java/two-sum.java"));
+    }
+
+    @Test
+    void failedRefUpdateOtherThanFastForwardIsNotRetried() {
+        String initialHead = github.getHeadSha();
+        github.inject("PATCH git/refs/heads/" + GitDataApiStub.BRANCH, github.error(502, "Bad Gateway"));
+
+        assertFalse(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution {}"))));
+
+        assertEquals(initialHead, github.getHeadSha());
+        assertEquals(1, github.getCreatedCommits().size());
+    }
+
+    @Test
+    void skipsFilesThatMatchTheCommittedBlob() {
+        Submission submission = submission("two-sum", "java", "class Solution {}");
+        assertTrue(service.uploadSubmissions(List.of(submission)));
+        int requests = server.getRequestCount();
+
+        assertTrue(service.uploadSubmissions(List.of(submission)));
+
+        assertEquals(requests, server.getRequestCount());
+    }
+
+    @Test
+    void changedNestedFileIsCommittedAgain() {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution {}"))));
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution { int x; }"))));
+
+        assertEquals(2, github.getCreatedCommits().size());
+        assertEquals("class Solution { int x; }", github.headFiles().get("java/two-sum.java"));
+
+        // The committed blob id was recorded even though the tree response only lists "java"
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution { int x; }"))));
+        assertEquals(2, github.getCreatedCommits().size());
+    }
+
+    @Test
+    void queuedBatchSkipsUnchangedFilesByTheirStoredBlobId() {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "java", "class Solution {}"))));
+
+        // Compared by the blob id taken at enqueue time; only the changed file goes into the tree
+        assertTrue(service.uploadCompactSubmissions(List.of(
+                CompactSubmission.of(submission("two-sum", "java", "class Solution {}"), 0),
+                CompactSubmission.of(submission("three-sum", "java", "class Solution { int x; }"), 0))));
+
+        JsonNode tree = github.getCreatedTrees().get(1).path("tree");
+        assertEquals(1, tree.size());
+        assertEquals("java/three-sum.java", tree.path(0).path("path").asText());
+        assertEquals("class Solution { int x; }", github.headFiles().get("java/three-sum.java"));
+    }
+
+    @Test
+    void concurrentBatchesAllLand() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> uploads = List.of(
+                    () -> service.uploadSubmissions(List.of(submission("a", "java", "a"), submission("b", "java", "b"))),
+                    () -> service.uploadSubmissions(List.of(submission("c", "java", "c"), submission("d", "java", "d"))),
+                    () -> service.uploadSubmissions(List.of(submission("e", "java", "e"))),
+                    () -> service.uploadSubmissions(List.of(submission("f", "java", "f"))));
+            for (Future<Boolean> result : workers.invokeAll(uploads)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals(6, github.headFiles().size());
+        assertEquals(0, github.getRejectedRefUpdates());
+    }
+
+    private static Submission submission(String problem, String language, String code) {
+        Submission submission = new Submission(problem, language, code);
+        submission.setStatus("Accepted");
+        return submission;
+    }
+}
@@ -0,0 +1,154 @@
+package com.leetcodetojava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetcodetojava.config.ConfigurationManager;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Detection over GraphQL against a local stub of leetcode.com/graphql/
+class LeetCodeGraphQLClientTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockWebServer server;
+    private LeetCodeGraphQLClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("leetcode.base.url", server.url("/").toString());
+        client = new LeetCodeGraphQLClient(new OkHttpClient(), new ConfigurationManager(config));
+        client.updateCookies(Set.of(new Cookie("LEETCODE_SESSION", "session-token"), new Cookie("csrftoken", "csrf-token")));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void pollsRecentAcceptedWithTheBrowserSession() throws Exception {
+        server.enqueue(data("{\"recentAcSubmissionList\":["
+                + "{\"id\":\"1234567\",\"titleSlug\":\"two-sum\",\"timestamp\":\"1700000100\"},"
+                + "{\"id\":\"1234500\",\"titleSlug\":\"add-two-numbers\",\"timestamp\":\"1700000000\"}]}"));
+
+        List<LeetCodeGraphQLClient.RecentSubmission> recent = client.fetchRecentAccepted("alice", 20);
+
+        assertEquals(2, recent.size());
+        assertEquals("1234567", recent.get(0).getId());
+        assertEquals("two-sum", recent.get(0).getTitleSlug());
+        assertEquals(1700000100L, recent.get(0).getTimestamp());
+        assertEquals("add-two-numbers", recent.get(1).getTitleSlug());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/graphql/", request.getPath());
+        assertEquals("csrf-token", request.getHeader("x-csrftoken"));
+        assertTrue(request.getHeader("Cookie").contains("LEETCODE_SESSION=session-token"));
+        JsonNode body = objectMapper.readTree(request.getBody().readUtf8());
+        assertTrue(body.path("query").asText().contains("recentAcSubmissionList"));
+        assertEquals("alice", body.path("variables").path("username").asText());
+        assertEquals(20, body.path("variables").path("limit").asInt());
+    }
+
+    @Test
+    void emptyRecentListIsNotAnError() throws Exception {
+        server.enqueue(data("{\"recentAcSubmissionList\":[]}"));
+
+        assertTrue(client.fetchRecentAccepted("alice", 20).isEmpty());
+    }
+
+    @Test
+    void signedOutSessionHasNoUsername() throws Exception {
+        server.enqueue(data("{\"userStatus\":{\"username\":\"\",\"isSignedIn\":false}}"));
+
+        assertNull(client.fetchSignedInUsername());
+    }
+
+    @Test
+    void signedInSessionReportsItsUsername() throws Exception {
+        server.enqueue(data("{\"userStatus\":{\"username\":\"alice\",\"isSignedIn\":true}}"));
+
+        assertEquals("alice", client.fetchSignedInUsername());
+    }
+
+    @Test
+    void graphQLErrorsForUnknownUserYieldNoSubmissions() throws Exception {
+        server.enqueue(json("{\"errors\":[{\"message\":\"That user does not exist.\"}],"
+                + "\"data\":{\"recentAcSubmissionList\":null}}"));
+
+        assertTrue(client.fetchRecentAccepted("nobody", 20).isEmpty());
+    }
+
+    @Test
+    void rejectedSessionIsAnError() {
+        server.enqueue(new MockResponse().setResponseCode(403).setBody("Forbidden"));
+
+        IOException error = assertThrows(IOException.class, () -> client.fetchRecentAccepted("alice", 20));
+        assertTrue(error.getMessage().contains("403"));
+    }
+
+    @Test
+    void parsesSubmissionDetail() throws Exception {
+        server.enqueue(data("{\"submissionDetails\":{"
+                + "\"code\":\"class Solution {\\n    public int[] twoSum(int[] nums, int target) { return null; }\\n}\","
+                + "\"timestamp\":1700000100,\"statusCode\":10,"
+                + "\"lang\":{\"name\":\"java\"},"
+                + "\"question\":{\"titleSlug\":\"two-sum\",\"difficulty\":\"Easy\"}}}"));
+
+        LeetCodeGraphQLClient.SubmissionDetail detail = client.fetchSubmissionDetail("1234567");
+
+        assertEquals("1234567", detail.getSubmissionId());
+        assertTrue(detail.getCode().startsWith("class Solution {\n"));
+        assertEquals("java", detail.getLanguage());
+        assertEquals("two-sum", detail.getTitleSlug());
+        assertEquals("Easy", detail.getDifficulty());
+        assertEquals(1700000100L, detail.getTimestamp());
+        assertTrue(detail.isAccepted());
+
+        JsonNode body = objectMapper.readTree(server.takeRequest().getBody().readUtf8());
+        assertEquals(1234567L, body.path("variables").path("submissionId").asLong());
+    }
+
+    @Test
+    void wrongAnswerDetailIsNotAccepted() throws Exception {
+        server.enqueue(data("{\"submissionDetails\":{\"code\":\"x\",\"timestamp\":1,\"statusCode\":11,"
+                + "\"lang\":{\"name\":\"python3\"},\"question\":{\"titleSlug\":\"two-sum\",\"difficulty\":\"Easy\"}}}"));
+
+        assertFalse(client.fetchSubmissionDetail("1").isAccepted());
+    }
+
+    @Test
+    void hiddenSubmissionDetailIsNull() throws Exception {
+        server.enqueue(data("{\"submissionDetails\":null}"));
+
+        assertNull(client.fetchSubmissionDetail("1234567"));
+    }
+
+    private static MockResponse data(String data) {
+        return json("{\"data\":" + data + "}");
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+}
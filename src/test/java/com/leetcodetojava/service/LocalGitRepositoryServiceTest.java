@@ -0,0 +1,132 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.Submission;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.RepositoryState;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Local clone backend against a bare repository on disk standing in for GitHub; no network
+class LocalGitRepositoryServiceTest {
+    private static final String BRANCH = "main";
+
+    @TempDir
+    Path tempDir;
+
+    private Path remote;
+    private LocalGitRepositoryService service;
+    private Git clone;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        remote = tempDir.resolve("remote.git");
+        Git.init().setBare(true).setInitialBranch(BRANCH).setDirectory(remote.toFile()).call().close();
+        Path seed = tempDir.resolve("seed");
+        try (Git git = Git.init().setInitialBranch(BRANCH).setDirectory(seed.toFile()).call()) {
+            Files.writeString(seed.resolve("README.md"), "# Solutions\n");
+            git.add().addFilepattern("README.md").call();
+            git.commit().setMessage("Initial commit").call();
+            git.push().setRemote(remote.toUri().toString()).add(BRANCH).call();
+        }
+
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("github.token", "unused");
+        config.setProperty("github.branch", BRANCH);
+        config.setProperty("git.remote.url", remote.toUri().toString());
+        config.setProperty("git.local.dir", tempDir.resolve("clone").toString());
+        // Pushes only when the test asks for one
+        config.setProperty("git.push.interval.seconds", 3600);
+        config.setProperty("git.push.batch.size", 1000);
+
+        service = new LocalGitRepositoryService(new ConfigurationManager(config));
+        service.initialize();
+        clone = Git.open(tempDir.resolve("clone").toFile());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        clone.close();
+    }
+
+    @Test
+    void commitsLocallyAndPushes() throws Exception {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "class Solution {}"))));
+        assertNull(remoteFile("java/two-sum.java"));
+
+        assertTrue(service.pushIfNeeded());
+
+        assertEquals("class Solution {}", remoteFile("java/two-sum.java"));
+    }
+
+    @Test
+    void rebasesOntoCommitsPushedElsewhere() throws Exception {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "class Solution {}"))));
+        commitFromOtherClone("other-1", "python/three-sum.py", "class Solution: pass\n");
+
+        assertTrue(service.pushIfNeeded());
+
+        assertEquals("class Solution {}", remoteFile("java/two-sum.java"));
+        assertEquals("class Solution: pass\n", remoteFile("python/three-sum.py"));
+    }
+
+    @Test
+    void conflictingRebaseIsAbortedAndCloneKeepsWorking() throws Exception {
+        assertTrue(service.uploadSubmissions(List.of(submission("two-sum", "class Solution { int local; }"))));
+        commitFromOtherClone("other-1", "java/two-sum.java", "class Solution { int remote; }");
+
+        assertFalse(service.pushIfNeeded());
+
+        // Not left mid-rebase: the working tree still has our version and new commits still work
+        assertEquals(RepositoryState.SAFE, clone.getRepository().getRepositoryState());
+        assertEquals("class Solution { int local; }",
+                Files.readString(tempDir.resolve("clone/java/two-sum.java"), StandardCharsets.UTF_8));
+        assertTrue(service.uploadSubmissions(List.of(submission("three-sum", "class Solution {}"))));
+        assertEquals("class Solution { int remote; }", remoteFile("java/two-sum.java"));
+    }
+
+    private void commitFromOtherClone(String name, String path, String content) throws Exception {
+        Path workTree = tempDir.resolve(name);
+        try (Git other = Git.cloneRepository().setURI(remote.toUri().toString()).setDirectory(workTree.toFile()).call()) {
+            Path file = workTree.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content);
+            other.add().addFilepattern(path).call();
+            other.commit().setMessage("Change " + path).call();
+            other.push().setRemote("origin").add(BRANCH).call();
+        }
+    }
+
+    private String remoteFile(String path) throws Exception {
+        try (Git bare = Git.open(remote.toFile()); RevWalk walk = new RevWalk(bare.getRepository())) {
+            ObjectId head = bare.getRepository().resolve("refs/heads/" + BRANCH);
+            try (TreeWalk tree = TreeWalk.forPath(bare.getRepository(), path, walk.parseCommit(head).getTree())) {
+                if (tree == null) {
+                    return null;
+                }
+                return new String(bare.getRepository().open(tree.getObjectId(0)).getBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static Submission submission(String problem, String code) {
+        return new Submission(problem, "java", code);
+    }
+}
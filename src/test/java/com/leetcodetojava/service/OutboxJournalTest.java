@@ -0,0 +1,34 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.model.CompactSubmission;
+import com.leetcodetojava.model.Submission;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxJournalTest {
+    @TempDir
+    Path stateDir;
+
+    @Test
+    void replayKeepsStatusLabelsItDoesNotKnow() throws Exception {
+        Submission submission = new Submission("two-sum", "java", "class Solution {}");
+        submission.setStatus("Time Limit Exceeded");
+
+        OutboxJournal journal = new OutboxJournal(stateDir.resolve("outbox.log"), 1000, 0);
+        journal.open();
+        long id = journal.append(CompactSubmission.of(submission, 0));
+        journal.close();
+
+        OutboxJournal replayed = new OutboxJournal(stateDir.resolve("outbox.log"), 1000, 0);
+        replayed.open();
+        CompactSubmission restored = replayed.getPending().get(id);
+        assertEquals(CompactSubmission.Status.UNKNOWN, restored.getStatus());
+        assertEquals("Time Limit Exceeded", restored.getStatusLabel());
+        assertEquals("Time Limit Exceeded", restored.toSubmission().getStatus());
+        replayed.close();
+    }
+}
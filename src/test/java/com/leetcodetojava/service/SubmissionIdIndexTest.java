@@ -0,0 +1,51 @@
+package com.leetcodetojava.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionIdIndexTest {
+    private static final long FIRST_ID = 1_000_000L;
+
+    @TempDir
+    Path stateDir;
+
+    @Test
+    void idsSurviveReopening() {
+        Path file = stateDir.resolve("submission-ids.idx");
+        SubmissionIdIndex index = new SubmissionIdIndex(file, 16, 1000);
+        assertTrue(index.add(FIRST_ID));
+        assertFalse(index.add(FIRST_ID));
+        index.close();
+
+        SubmissionIdIndex reopened = new SubmissionIdIndex(file, 16, 1000);
+        assertTrue(reopened.contains(FIRST_ID));
+        assertFalse(reopened.contains(FIRST_ID + 1));
+        reopened.close();
+    }
+
+    @Test
+    void fullIndexForgetsTheOldestIdsAndStopsGrowing() throws Exception {
+        Path file = stateDir.resolve("submission-ids.idx");
+        // The smallest table, 65536 slots, is the limit here and is rotated at 32768 IDs
+        SubmissionIdIndex index = new SubmissionIdIndex(file, 16, 1000);
+        long sizeAtStart = Files.size(file);
+        int added = 200_000;
+        for (long id = FIRST_ID; id < FIRST_ID + added; id++) {
+            index.add(id);
+        }
+
+        assertEquals(sizeAtStart, Files.size(file));
+        assertTrue(index.size() <= 32_768);
+        assertTrue(index.contains(FIRST_ID + added - 1));
+        assertTrue(index.contains(FIRST_ID + added - 16_000));
+        assertFalse(index.contains(FIRST_ID));
+        index.close();
+    }
+}
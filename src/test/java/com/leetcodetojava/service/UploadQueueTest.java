@@ -0,0 +1,143 @@
+package com.leetcodetojava.service;
+
+import com.leetcodetojava.config.ConfigurationManager;
+import com.leetcodetojava.model.Submission;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadQueueTest {
+    @TempDir
+    Path stateDir;
+
+    private final UploadQueue queue = new UploadQueue(null, new ConfigurationManager(new BaseConfiguration()), false);
+
+    @Test
+    void backoffStaysInTheUpperHalfOfEachStep() {
+        for (int round = 0; round < 1000; round++) {
+            for (int attempt = 1; attempt <= 5; attempt++) {
+                long ceiling = 1000L << (attempt - 1);
+                long delay = queue.backoffDelayMillis(attempt);
+                assertTrue(delay >= ceiling / 2 && delay <= ceiling, "attempt " + attempt + " waited " + delay + " ms");
+            }
+        }
+    }
+
+    @Test
+    void retriesWithDefaultsOutlastAFifteenSecondOutage() {
+        for (int round = 0; round < 1000; round++) {
+            long total = 0;
+            // Six attempts, five waits in between
+            for (int attempt = 1; attempt <= 5; attempt++) {
+                total += queue.backoffDelayMillis(attempt);
+            }
+            assertTrue(total >= 15_000, "all attempts spent within " + total + " ms");
+        }
+    }
+
+    @Test
+    void backoffIsCapped() {
+        for (int round = 0; round < 1000; round++) {
+            assertTrue(queue.backoffDelayMillis(30) <= 60_000);
+        }
+    }
+
+    @Test
+    void fullQueueRejectsWithoutWritingTheJournal() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        UploadQueue blocked = startQueue(config(1, 6), submission -> {
+            release.await();
+            return true;
+        });
+        try {
+            assertTrue(blocked.enqueue(submission("two-sum")));
+            // The worker holds the first submission, the second fills the only slot
+            waitFor(() -> blocked.getRemainingCapacity() == 1);
+            assertTrue(blocked.enqueue(submission("three-sum")));
+
+            long journalSize = Files.size(stateDir.resolve("outbox.log"));
+            assertFalse(blocked.enqueue(submission("four-sum")));
+            assertFalse(blocked.enqueue(submission("four-sum")));
+            assertEquals(journalSize, Files.size(stateDir.resolve("outbox.log")));
+        } finally {
+            release.countDown();
+            blocked.shutdown();
+        }
+    }
+
+    @Test
+    void keepsRetryingPastMaxAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        UploadQueue flaky = startQueue(config(10, 2), submission -> calls.incrementAndGet() > 5);
+        try {
+            assertTrue(flaky.enqueue(submission("two-sum")));
+
+            assertTrue(flaky.awaitIdle(10, TimeUnit.SECONDS));
+            assertEquals(6, calls.get());
+        } finally {
+            flaky.shutdown();
+        }
+    }
+
+    private BaseConfiguration config(int capacity, int maxAttempts) {
+        BaseConfiguration config = new BaseConfiguration();
+        config.setProperty("state.dir", stateDir.toString());
+        config.setProperty("upload.queue.capacity", capacity);
+        config.setProperty("upload.workers", 1);
+        config.setProperty("upload.max.attempts", maxAttempts);
+        config.setProperty("upload.retry.base.delay.ms", 10);
+        config.setProperty("upload.retry.max.delay.ms", 50);
+        return config;
+    }
+
+    private static UploadQueue startQueue(BaseConfiguration config, Upload upload) {
+        UploadQueue started = new UploadQueue(new SubmissionUploader() {
+            @Override
+            public boolean uploadSubmission(Submission submission) {
+                try {
+                    return upload.attempt(submission);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+
+            @Override
+            public boolean uploadSubmissions(List<Submission> submissions) {
+                return submissions.stream().allMatch(this::uploadSubmission);
+            }
+        }, new ConfigurationManager(config), false);
+        started.start();
+        return started;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Submission submission(String problem) {
+        Submission submission = new Submission(problem, "java", "class Solution {}");
+        submission.setStatus("Accepted");
+        return submission;
+    }
+
+    private interface Upload {
+        boolean attempt(Submission submission) throws InterruptedException;
+    }
+}